@@ -0,0 +1,100 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BaselineDiff compares two JMH result files written with -rf csv and prints how much every score moved.<p>
+ * Rows are matched on benchmark name plus parameters, so the gc profiler's secondary scores
+ * (e.g. gc.alloc.rate.norm) are compared alongside the timings.
+ */
+public class BaselineDiff {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BaselineDiff <baseline.csv> <current.csv>");
+            System.exit(2);
+        }
+        Map<String, double[]> baseline = read(args[0]);
+        Map<String, double[]> current = read(args[1]);
+
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+            double now = entry.getValue()[0];
+            double[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now, "new");
+            } else {
+                double change = before[0] == 0 ? 0 : (now - before[0]) / before[0] * 100;
+                System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%n", entry.getKey(), before[0], now, change);
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-70s %14.3f %14s %9s%n", key, baseline.get(key)[0], "-", "gone");
+            }
+        }
+    }
+
+    /**
+     * Reads a JMH CSV result file.
+     *
+     * @param path The file to read.
+     * @return score and error keyed by "benchmark [param=value...] (unit)", in file order.
+     */
+    private static Map<String, double[]> read(String path) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        List<String> header = split(lines.get(0));
+        int scoreColumn = header.indexOf("Score");
+        int unitColumn = header.indexOf("Unit");
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> row = split(line);
+            if (row.size() < header.size()) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(shorten(row.get(0)));
+            for (int i = unitColumn + 1; i < header.size(); i++) {
+                if (!row.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(row.get(i));
+                }
+            }
+            key.append(" (").append(row.get(unitColumn)).append(')');
+            double error = row.get(scoreColumn + 1).isEmpty() || row.get(scoreColumn + 1).equals("NaN")
+                    ? 0 : Double.parseDouble(row.get(scoreColumn + 1));
+            scores.put(key.toString(), new double[]{Double.parseDouble(row.get(scoreColumn)), error});
+        }
+        return scores;
+    }
+
+    private static String shorten(String benchmark) {
+        return benchmark.startsWith("treasurehunter.") ? benchmark.substring("treasurehunter.".length()) : benchmark;
+    }
+
+    /**
+     * Splits one CSV line, dropping the quotes around quoted fields.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
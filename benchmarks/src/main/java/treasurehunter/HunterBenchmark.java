@@ -0,0 +1,73 @@
+package treasurehunter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the Hunter kit and treasure operations that every turn leans on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HunterBenchmark {
+    private Hunter hunter;
+
+    @Setup
+    public void setUp() {
+        hunter = new Hunter("bench", 1000, 7, NullOutputSink.INSTANCE);
+        hunter.buyItem(Item.WATER, 0);
+        hunter.buyItem(Item.HORSE, 0);
+        hunter.buyItem(Item.SHOVEL, 0);
+    }
+
+    @Benchmark
+    public boolean hasItemInKitHit() {
+        return hunter.hasItemInKit(Item.SHOVEL);
+    }
+
+    @Benchmark
+    public boolean hasItemInKitMiss() {
+        return hunter.hasItemInKit(Item.BOAT);
+    }
+
+    @Benchmark
+    public boolean hasItemInKitByName() {
+        return hunter.hasItemInKit("shovel");
+    }
+
+    /**
+     * Buys an item and puts the kit and purse back the way they were, so every call does the same work.
+     */
+    @Benchmark
+    public boolean buyItem() {
+        boolean bought = hunter.buyItem(Item.ROPE, 4);
+        hunter.removeItemFromKit(Item.ROPE);
+        hunter.changeGold(4);
+        return bought;
+    }
+
+    /**
+     * Fills a fresh hunter's treasures and checks the win condition, as a winning game does.
+     */
+    @Benchmark
+    public boolean addTreasure() {
+        Hunter fresh = new Hunter("bench", 20, 7, null);
+        fresh.addTreasure(Treasure.CROWN);
+        fresh.addTreasure(Treasure.TROPHY);
+        fresh.addTreasure(Treasure.CROWN);
+        fresh.addTreasure(Treasure.GEM);
+        return fresh.treasuresFull();
+    }
+}
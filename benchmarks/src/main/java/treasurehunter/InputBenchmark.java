@@ -0,0 +1,47 @@
+package treasurehunter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many scripted commands per second a whole game can take in, with output counted but not drawn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBenchmark {
+    private static final int COMMANDS = 10_000;
+
+    private String[] script;
+
+    @Setup
+    public void setUp() {
+        // name and mode, then explore over and over (which never ends the game), then run out of input
+        script = new String[COMMANDS + 2];
+        script[0] = "bench";
+        script[1] = "n";
+        Arrays.fill(script, 2, script.length, "e");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public long playScript() {
+        CountingOutputSink output = new CountingOutputSink();
+        new TreasureHunter(42, new ScriptInput(script), output).play();
+        return output.getCharacters();
+    }
+}
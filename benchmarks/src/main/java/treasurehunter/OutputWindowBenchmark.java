@@ -0,0 +1,141 @@
+package treasurehunter;
+
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTextPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks writing into the window's document, using a pane that is never put on screen.<p>
+ * Each operation queues its text and then draws it, as one frame of the window's timer would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OutputWindowBenchmark {
+    // clear the document every so often so it doesn't grow for the whole run
+    private static final int INSERTS_PER_CLEAR = 1000;
+
+    private OutputWindow window;
+    private OutputWindow screenWindow;
+    private OutputWindow scrollbackWindow;
+    private Screen screen;
+    private int inserts;
+    private int turn;
+
+    @Setup
+    public void setUp() {
+        window = new OutputWindow(new JTextPane());
+        screenWindow = new OutputWindow(new JTextPane());
+        screen = new Screen(screenWindow);
+        scrollbackWindow = new OutputWindow(new JTextPane());
+    }
+
+    @Benchmark
+    public void addTextToWindow() {
+        window.addTextToWindow("You won the brawl and receive ", Colors.yellow);
+        if (++inserts == INSERTS_PER_CLEAR) {
+            inserts = 0;
+            window.clear();
+        }
+        window.drain();
+    }
+
+    /**
+     * Adds a line and draws it without ever clearing, so the document stays at its scrollback budget
+     * and every so often has its oldest lines cut.
+     */
+    @Benchmark
+    public void addLineWithScrollback() {
+        scrollbackWindow.addTextToWindow("\nYou won the brawl and receive ", Colors.yellow);
+        scrollbackWindow.drain();
+    }
+
+    /**
+     * Clears the last menu and draws the main menu the way TreasureHunter.showMenu() does each turn.
+     */
+    @Benchmark
+    public void drawMenu() {
+        window.clear();
+        window.addTextToWindow("\n\n(B)uy something at the shop.", Colors.purple);
+        window.addTextToWindow("\n(S)ell something at the shop.", Colors.green);
+        window.addTextToWindow("\n(E)xplore surrounding terrain.", Colors.blue);
+        window.addTextToWindow("\n(M)ove on to a different town.", Colors.cyan);
+        window.addTextToWindow("\n(L)ook for trouble!", Colors.red);
+        window.addTextToWindow("\n(H)unt for treasure!", Colors.yellow);
+        window.addTextToWindow("\n(D)ig for gold", Colors.brightYellow);
+        window.addTextToWindow("\nGive up the hunt and e(X)it.");
+        window.addTextToWindow("\n");
+        window.addTextToWindow("What's your next move? ");
+        window.drain();
+    }
+
+    /**
+     * Draws a whole turn through the Screen, where only the action result and the hunter's gold change
+     * from turn to turn, so the news, town and menu regions are left alone.
+     */
+    @Benchmark
+    public void drawTurnWithScreen() {
+        turn++;
+        screen.clear();
+        screen.addTextToWindow("You couldn't find any trouble");
+        screen.beginRegion(Screen.Region.NEWS);
+        screen.addTextToWindow("\nYou left the shop");
+        screen.addTextToWindow("\n**********\n");
+        screen.endRegion();
+        screen.beginRegion(Screen.Region.STATUS);
+        screen.addTextToWindow("bench has ", Colors.cyan);
+        screen.addTextToWindow(turn + " gold", Colors.yellow);
+        screen.addTextToWindow("\nTreasures found: none\n\n");
+        screen.endRegion();
+        screen.beginRegion(Screen.Region.TOWN);
+        screen.addTextToWindow("This nice little town is surrounded by Plains.");
+        screen.endRegion();
+        screen.beginRegion(Screen.Region.MENU);
+        drawMenuInto(screen);
+        screen.endRegion();
+        screenWindow.drain();
+    }
+
+    /**
+     * The same turn as drawTurnWithScreen(), but clearing the window and drawing everything, as the game used to.
+     */
+    @Benchmark
+    public void drawTurnInFull() {
+        turn++;
+        window.clear();
+        window.addTextToWindow("You couldn't find any trouble");
+        window.addTextToWindow("\nYou left the shop");
+        window.addTextToWindow("\n**********\n");
+        window.addTextToWindow("bench has ", Colors.cyan);
+        window.addTextToWindow(turn + " gold", Colors.yellow);
+        window.addTextToWindow("\nTreasures found: none\n\n");
+        window.addTextToWindow("This nice little town is surrounded by Plains.");
+        drawMenuInto(window);
+        window.drain();
+    }
+
+    private static void drawMenuInto(OutputSink sink) {
+        sink.addTextToWindow("\n\n(B)uy something at the shop.", Colors.purple);
+        sink.addTextToWindow("\n(S)ell something at the shop.", Colors.green);
+        sink.addTextToWindow("\n(E)xplore surrounding terrain.", Colors.blue);
+        sink.addTextToWindow("\n(M)ove on to a different town.", Colors.cyan);
+        sink.addTextToWindow("\n(L)ook for trouble!", Colors.red);
+        sink.addTextToWindow("\n(H)unt for treasure!", Colors.yellow);
+        sink.addTextToWindow("\n(D)ig for gold", Colors.brightYellow);
+        sink.addTextToWindow("\nGive up the hunt and e(X)it.");
+        sink.addTextToWindow("\n");
+        sink.addTextToWindow("What's your next move? ");
+    }
+}
@@ -0,0 +1,64 @@
+package treasurehunter;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks hundreds of hunters sharing one town, each arriving with a fresh hunter, searching, digging and leaving,
+ * with the gold pit as a single counter (1 stripe) and striped.<p>
+ * The town never runs out, so every visit races for the treasure and the gold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(256)
+public class SharedTownBenchmark {
+    @Param({"1", "16"})
+    public int stripes;
+
+    private SharedTown town;
+
+    @Setup
+    public void setUp() {
+        town = new SharedTown(Town.TERRAINS[0], Treasure.CROWN, Integer.MAX_VALUE, Long.MAX_VALUE, stripes);
+    }
+
+    /**
+     * Each thread is one hunter's player, with its own random source.
+     */
+    @State(Scope.Thread)
+    public static class Player {
+        private SplittableRandom random;
+
+        @Setup
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().threadId());
+        }
+    }
+
+    @Benchmark
+    public int visit(Player player) {
+        Hunter hunter = new Hunter("bench", 0, 7, NullOutputSink.INSTANCE);
+        hunter.buyItem(Item.SHOVEL, 0);
+        SharedTown.Visit visit = town.arrive(hunter, player.random);
+        visit.huntForTreasure();
+        int gold = visit.digForGold();
+        visit.leave();
+        return gold;
+    }
+}
@@ -0,0 +1,61 @@
+package treasurehunter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks shop price lookups, both by Item and by the name a player types, and through a Market.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShopBenchmark {
+    @Param({"water", "boat"})
+    public String itemName;
+
+    private Shop shop;
+    private Shop marketShop;
+    private Market market;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        shop = new Shop(0.5, NullOutputSink.INSTANCE, false, false);
+        item = Item.fromName(itemName);
+        market = new Market();
+        marketShop = new Shop(new PriceCatalog(0.5, false, false), market, NullOutputSink.INSTANCE);
+    }
+
+    @Benchmark
+    public int checkMarketPrice() {
+        return shop.checkMarketPrice(item, true) + shop.checkMarketPrice(item, false);
+    }
+
+    @Benchmark
+    public int checkMarketPriceWithMarket() {
+        return marketShop.checkMarketPrice(item, true) + marketShop.checkMarketPrice(item, false);
+    }
+
+    @Benchmark
+    public void recordPurchase() {
+        market.recordPurchase(item);
+    }
+
+    @Benchmark
+    public int checkMarketPriceByName() {
+        return shop.checkMarketPrice(itemName, true) + shop.checkMarketPrice(itemName, false);
+    }
+}
@@ -0,0 +1,78 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTextPane;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.Style;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyleContext;
+import javax.swing.text.StyledDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the two ways of coloring inserted text, measured as inserts per second:
+ * recoloring one shared Style before every insert (how OutputWindow used to work),
+ * and using one prebuilt immutable style per color (how it works now).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class StyleBenchmark {
+    // clear the document every so often so it doesn't grow for the whole run
+    private static final int INSERTS_PER_CLEAR = 100;
+
+    @Param({"shared", "cached"})
+    public String styles;
+
+    private StyledDocument doc;
+    private Style sharedStyle;
+    private Map<Color, AttributeSet> cachedStyles = new HashMap<>();
+    private int inserts;
+
+    @Setup
+    public void setUp() {
+        doc = new JTextPane().getStyledDocument();
+        sharedStyle = doc.addStyle("my style", null);
+        StyleConstants.setFontSize(sharedStyle, 25);
+        StyleContext context = StyleContext.getDefaultStyleContext();
+        AttributeSet base = context.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.FontSize, 25);
+        for (Color color : Colors.all) {
+            cachedStyles.put(color, context.addAttribute(base, StyleConstants.Foreground, color));
+        }
+    }
+
+    @Benchmark
+    public void insert() throws BadLocationException {
+        Color color = Colors.all[inserts % Colors.all.length];
+        AttributeSet style;
+        if (styles.equals("shared")) {
+            StyleConstants.setForeground(sharedStyle, color);
+            style = sharedStyle;
+        } else {
+            style = cachedStyles.get(color);
+        }
+        doc.insertString(doc.getLength(), "You won the brawl and receive ", style);
+        if (++inserts == INSERTS_PER_CLEAR) {
+            inserts = 0;
+            doc.remove(0, doc.getLength());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package treasurehunter;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks drawing a turn's menu in the terminal, up to and including the flush before the game waits for input.
+ * The text goes to a writer that throws it away, so this measures the sink, not the terminal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalBenchmark {
+    private TerminalOutputSink terminal;
+
+    @Setup
+    public void setUp() {
+        terminal = new TerminalOutputSink(Writer.nullWriter());
+    }
+
+    /**
+     * Clears the last menu and draws the main menu the way TreasureHunter.showMenu() does each turn.
+     */
+    @Benchmark
+    public void drawMenu() {
+        terminal.clear();
+        terminal.addTextToWindow("\n\n(B)uy something at the shop.", Colors.purple);
+        terminal.addTextToWindow("\n(S)ell something at the shop.", Colors.green);
+        terminal.addTextToWindow("\n(E)xplore surrounding terrain.", Colors.blue);
+        terminal.addTextToWindow("\n(M)ove on to a different town.", Colors.cyan);
+        terminal.addTextToWindow("\n(L)ook for trouble!", Colors.red);
+        terminal.addTextToWindow("\n(H)unt for treasure!", Colors.yellow);
+        terminal.addTextToWindow("\n(D)ig for gold", Colors.brightYellow);
+        terminal.addTextToWindow("\nGive up the hunt and e(X)it.");
+        terminal.addTextToWindow("\n");
+        terminal.addTextToWindow("What's your next move? ");
+        terminal.flush();
+    }
+}
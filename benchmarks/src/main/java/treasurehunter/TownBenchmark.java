@@ -0,0 +1,56 @@
+package treasurehunter;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building towns and brawling in them, with output either dropped or only counted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TownBenchmark {
+    @Param({"null", "counting"})
+    public String sink;
+
+    private OutputSink window;
+    private SplittableRandom random;
+    private Shop shop;
+    private Hunter hunter;
+    private Town town;
+
+    @Setup
+    public void setUp() {
+        window = sink.equals("null") ? NullOutputSink.INSTANCE : new CountingOutputSink();
+        random = new SplittableRandom(42);
+        shop = new Shop(0.5, window, false, false);
+        hunter = new Hunter("bench", 1_000_000, 7, window);
+        town = new Town(shop, 0.4, false, random, window);
+        town.hunterArrives(hunter);
+    }
+
+    @Benchmark
+    public Town newTown() {
+        return new Town(shop, 0.4, false, random, window);
+    }
+
+    @Benchmark
+    public int lookForTrouble() {
+        town.lookForTrouble();
+        return hunter.getGold();
+    }
+}
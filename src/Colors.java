@@ -1,26 +0,0 @@
-import java.awt.Color;
-public class Colors {
-
-    public static final Color white = Color.white;
-    public static final Color blue = Color.blue;
-    public static final Color red = Color.red;
-    public static final Color brightYellow = Color.yellow;
-    public static final Color green = new Color(20,255,150);
-    public static final Color yellow = new Color(186,180,35);
-    public static final Color cyan = new Color(0,230,255);
-    public static final Color purple = new Color(160,32,240);
-    public static final Color gray = new Color(155,161,157);
-
-    /*
-    public static final java.lang.String RESET = "\u001B[0m";
-    public static final java.lang.String BLACK = "\u001B[0;30m";
-    public static final java.lang.String RED = "\u001B[0;31m";
-    public static final java.lang.String GREEN = "\u001B[0;32m";
-    public static final java.lang.String YELLOW = "\u001B[0;33m";
-    public static final java.lang.String BLUE = "\u001B[0;34m";
-    public static final java.lang.String PURPLE = "\u001B[0;35m";
-    public static final java.lang.String CYAN = "\u001B[0;36m";
-    public static final java.lang.String WHITE = "\u001B[0;37m";
-    */
-
-}
\ No newline at end of file
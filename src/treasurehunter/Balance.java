@@ -0,0 +1,146 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A Balance is the economy every game mode is played with (see Economy): either the one built into each mode,
+ * or one BalanceTuner worked out and wrote to a properties file.<p>
+ * A tuned balance is only ever played when it is asked for, with --balance=FILE on the command line of the game,
+ * the server, the simulation or a tournament, and it reaches a game through its GameContext. Saves keep the economy
+ * they were played with and recordings keep their balance, so they play on the same whatever is loaded later.
+ */
+
+public class Balance {
+    /**
+     * Every mode with the economy it is built with.
+     */
+    public static final Balance BUILT_IN = new Balance(null, builtInEconomies());
+    // the file BalanceTuner writes unless told otherwise
+    public static final String DEFAULT_FILE = "build/balance.properties";
+    // the command line option that loads a tuned balance
+    public static final String OPTION = "--balance=";
+
+    // instance variables
+    private final Path file; // null if the balance wasn't loaded from a file
+    private final Map<GameMode, Economy> economies;
+
+    private Balance(Path file, Map<GameMode, Economy> economies) {
+        this.file = file;
+        this.economies = economies;
+    }
+
+    private static Map<GameMode, Economy> builtInEconomies() {
+        Map<GameMode, Economy> economies = new EnumMap<>(GameMode.class);
+        for (GameMode mode : GameMode.values()) {
+            economies.put(mode, Economy.of(mode));
+        }
+        return economies;
+    }
+
+    /**
+     * Reads a balance written by BalanceTuner, e.g. normal.startingGold=20, normal.toughness=0.4,
+     * normal.markdown=0.5 and normal.priceScale=1.0. Modes and knobs the file leaves out keep their built-in value.
+     *
+     * @param file The properties file.
+     * @return The balance.
+     * @throws IOException if the file can't be read or holds something that isn't a number.
+     */
+    public static Balance load(Path file) throws IOException {
+        Properties balance = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            balance.load(in);
+        }
+        Map<GameMode, Economy> economies = new EnumMap<>(GameMode.class);
+        try {
+            for (GameMode mode : GameMode.values()) {
+                Economy builtIn = Economy.of(mode);
+                String prefix = mode.name().toLowerCase() + ".";
+                economies.put(mode, new Economy(mode,
+                        Integer.parseInt(balance.getProperty(prefix + "startingGold", String.valueOf(builtIn.getStartingGold()))),
+                        Double.parseDouble(balance.getProperty(prefix + "toughness", String.valueOf(builtIn.getToughness()))),
+                        Double.parseDouble(balance.getProperty(prefix + "markdown", String.valueOf(builtIn.getMarkdown()))),
+                        Double.parseDouble(balance.getProperty(prefix + "priceScale", String.valueOf(builtIn.getPriceScale())))));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad number in the balance file " + file, e);
+        }
+        return new Balance(file, economies);
+    }
+
+    /**
+     * Takes a --balance=FILE option out of a command line, if it has one.
+     *
+     * @param args The command line; the option is removed from it.
+     * @return The balance in the file, or BUILT_IN if there is no such option.
+     */
+    public static Balance fromOption(List<String> args) throws IOException {
+        Balance balance = BUILT_IN;
+        for (int i = args.size() - 1; i >= 0; i--) {
+            if (args.get(i).startsWith(OPTION)) {
+                balance = load(Paths.get(args.remove(i).substring(OPTION.length())));
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * Writes the balance: whether it is the built-in one, and if it isn't, every mode's economy in order.
+     *
+     * @param out Where the balance is written.
+     */
+    public void write(DataOutput out) throws IOException {
+        boolean builtIn = isBuiltIn();
+        out.writeBoolean(builtIn);
+        if (!builtIn) {
+            for (GameMode mode : GameMode.values()) {
+                economies.get(mode).write(out);
+            }
+        }
+    }
+
+    /**
+     * Reads back a balance written by write().
+     *
+     * @param in Where the balance is read from.
+     * @return The balance.
+     */
+    public static Balance read(DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            return BUILT_IN;
+        }
+        Map<GameMode, Economy> economies = new EnumMap<>(GameMode.class);
+        for (GameMode mode : GameMode.values()) {
+            economies.put(mode, Economy.read(in, mode));
+        }
+        return new Balance(null, economies);
+    }
+
+    /**
+     * @return true if every mode plays with its built-in economy, wherever the balance came from.
+     */
+    public boolean isBuiltIn() {
+        return economies.equals(BUILT_IN.economies);
+    }
+
+    // accessors
+    public Economy getEconomy(GameMode mode) {
+        return economies.get(mode);
+    }
+
+    /**
+     * @return the file the balance was loaded from, or null if it wasn't loaded from one.
+     */
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,243 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BalanceTuner searches for the economy that gives each game mode the win rate asked for, so balancing
+ * no longer means editing numbers by hand and playing to see what happens.<p>
+ * For each mode it tunes four knobs of its Economy: the starting gold, the chance of a tough town, the markdown on
+ * items sold back, and a scale on every item's cost. The search starts from the mode's economy in a Balance, the
+ * built-in one unless another is given, and moves one knob at a time, keeping any step that brings the win rate
+ * closer to the target and halving the steps when none does.<p>
+ * Every candidate is measured with headless games played in parallel (see Simulation), a batch at a time.
+ * After each batch the 95% confidence interval on the win rate decides whether to go on: a candidate stops as soon
+ * as its interval is narrow enough, or as soon as even the nearest end of its interval misses the target by more
+ * than the best candidate so far does. Every candidate plays the same seeds, so they are compared on the same luck.
+ */
+
+public class BalanceTuner {
+    // games played per candidate between looks at the confidence interval
+    private static final int BATCH_GAMES = 10_000;
+    private static final int MAX_GAMES = 200_000;
+    // how far apart the batches' seeds are; not SplittableRandom's own step, or each batch would replay
+    // some of the games of the batch before it
+    private static final long BATCH_SEED_STRIDE = 0xbf58476d1ce4e5b9L;
+    // z for a two-sided 95% interval
+    private static final double Z = 1.96;
+    // a candidate's win rate is known well enough once its interval is this narrow on each side
+    private static final double PRECISION = 0.0025;
+    // how many times the steps are halved before the search settles for the best it has
+    private static final int HALVINGS = 4;
+
+    // instance variables
+    private Policy policy;
+    private int maxTurns;
+    private long seed;
+    private long gamesPlayed;
+    private long candidatesTried;
+
+    /**
+     * @param policy The policy every game is played with.
+     * @param maxTurns The most turns a game may take before it is counted as a timeout.
+     * @param seed The seed every candidate's games are played with.
+     */
+    public BalanceTuner(Policy policy, int maxTurns, long seed) {
+        this.policy = policy;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Finds the economy that plays closest to the target win rate for one mode.
+     *
+     * @param start The economy the search starts from, and through it the mode to tune.
+     * @param target The win rate wanted, between 0 and 1.
+     * @return The best candidate found, with what it measured.
+     */
+    public Measurement tune(Economy start, double target) {
+        Measurement best = measure(start, target, Double.POSITIVE_INFINITY);
+        double[] steps = Economy.firstSteps();
+        for (int halvings = 0; halvings <= HALVINGS && best.error() > PRECISION; ) {
+            boolean improved = false;
+            for (int knob = 0; knob < steps.length; knob++) {
+                for (int direction = -1; direction <= 1; direction += 2) {
+                    Economy next = best.economy.step(knob, direction * steps[knob]);
+                    if (next.equals(best.economy)) {
+                        continue; // against a limit
+                    }
+                    Measurement tried = measure(next, target, best.error());
+                    if (tried.error() < best.error()) {
+                        best = tried;
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                for (int knob = 0; knob < steps.length; knob++) {
+                    steps[knob] /= 2;
+                }
+                halvings++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays batches of games with a candidate until its win rate is known well enough, it clearly can't beat
+     * the best so far, or it has played MAX_GAMES.
+     */
+    private Measurement measure(Economy economy, double target, double bestError) {
+        candidatesTried++;
+        Measurement measurement = new Measurement(economy, target, new SimulationStats(maxTurns));
+        for (int batch = 0; measurement.stats.getGames() < MAX_GAMES; batch++) {
+            // batch n has the same seed for every candidate, so each candidate's first games are always the same games
+            Simulation simulation = new Simulation(economy, policy, maxTurns, seed + batch * BATCH_SEED_STRIDE);
+            measurement.stats.merge(simulation.run(BATCH_GAMES));
+            gamesPlayed += BATCH_GAMES;
+            if (measurement.halfWidth() <= PRECISION || measurement.bestCaseError() > bestError) {
+                break;
+            }
+        }
+        return measurement;
+    }
+
+    // accessors
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getCandidatesTried() {
+        return candidatesTried;
+    }
+
+    /**
+     * What a candidate economy measured against its target.
+     */
+    public static class Measurement {
+        // instance variables
+        private Economy economy;
+        private double target;
+        private SimulationStats stats;
+
+        Measurement(Economy economy, double target, SimulationStats stats) {
+            this.economy = economy;
+            this.target = target;
+            this.stats = stats;
+        }
+
+        /**
+         * @return how far the measured win rate is from the target.
+         */
+        public double error() {
+            return Math.abs(stats.getWinRate() - target);
+        }
+
+        /**
+         * @return half the width of the 95% Wilson score interval on the win rate.
+         */
+        public double halfWidth() {
+            return (high() - low()) / 2;
+        }
+
+        /**
+         * @return how far the target is from the nearest end of the interval; 0 if the target is inside it.
+         */
+        double bestCaseError() {
+            return Math.max(0, Math.max(low() - target, target - high()));
+        }
+
+        public double low() {
+            return stats.getWinRateLow(Z);
+        }
+
+        public double high() {
+            return stats.getWinRateHigh(Z);
+        }
+
+        // accessors
+        public Economy getEconomy() {
+            return economy;
+        }
+
+        public double getTarget() {
+            return target;
+        }
+
+        public SimulationStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * Writes the tuned economies as properties, each mode's measured statistics in a comment above its knobs.
+     * Any game, simulation or tournament can then be played with them with --balance=FILE (see Balance.load()).
+     *
+     * @param file Where to write.
+     * @param results The best measurement for each mode.
+     */
+    public void write(Path file, Map<GameMode, Measurement> results) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("# Treasure Hunter economy tuned with " + policy.getClass().getSimpleName()
+                    + ", at most " + maxTurns + " turns a game, seed " + seed);
+            for (Map.Entry<GameMode, Measurement> entry : results.entrySet()) {
+                String mode = entry.getKey().name().toLowerCase();
+                Measurement result = entry.getValue();
+                Economy economy = result.economy;
+                SimulationStats stats = result.stats;
+                out.println();
+                out.printf("# %s: target %.2f%%, measured %.2f%% (95%% CI %.2f%%-%.2f%%) over %,d games, mean %.1f turns to win%n",
+                        mode, result.target * 100, stats.getWinRate() * 100, result.low() * 100, result.high() * 100,
+                        stats.getGames(), stats.getMeanTurnsToWin());
+                out.println(mode + ".startingGold=" + economy.getStartingGold());
+                out.println(mode + ".toughness=" + economy.getToughness());
+                out.println(mode + ".markdown=" + economy.getMarkdown());
+                out.println(mode + ".priceScale=" + economy.getPriceScale());
+            }
+        }
+    }
+
+    /**
+     * Tunes every mode given a target from the command line.<p>
+     * Arguments (all optional): targets as mode=winRate pairs joined by commas (default "e=0.6,n=0.35,h=0.15,s=0.45"),
+     * the file to write (default build/balance.properties), max turns per game (default 500), seed (default 42).
+     * --balance=FILE starts the search from a balance tuned before instead of the built-in one.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        Balance balance = Balance.fromOption(rest);
+        String targets = rest.size() > 0 ? rest.get(0) : "e=0.6,n=0.35,h=0.15,s=0.45";
+        Path file = Paths.get(rest.size() > 1 ? rest.get(1) : Balance.DEFAULT_FILE);
+        int maxTurns = rest.size() > 2 ? Integer.parseInt(rest.get(2)) : 500;
+        long seed = rest.size() > 3 ? Long.parseLong(rest.get(3)) : 42;
+
+        BalanceTuner tuner = new BalanceTuner(new GreedyPolicy(), maxTurns, seed);
+        Map<GameMode, Measurement> results = new EnumMap<>(GameMode.class);
+        long start = System.nanoTime();
+        for (String pair : targets.split(",")) {
+            String[] parts = pair.split("=");
+            GameMode mode = GameMode.fromChoice(parts[0].trim().toLowerCase());
+            double target = Double.parseDouble(parts[1]);
+            Measurement result = tuner.tune(balance.getEconomy(mode), target);
+            results.put(mode, result);
+            Economy economy = result.economy;
+            System.out.printf("%-8s target %.2f%%: %.2f%% (95%% CI %.2f%%-%.2f%%) with %s%n",
+                    mode, target * 100, result.stats.getWinRate() * 100, result.low() * 100, result.high() * 100, economy);
+        }
+        tuner.write(file, results);
+        System.out.printf("Tried %d candidates with %,d games (%,d without early stopping) in %.1f s; wrote %s%n",
+                tuner.getCandidatesTried(), tuner.getGamesPlayed(), tuner.getCandidatesTried() * MAX_GAMES,
+                (System.nanoTime() - start) / 1e9, file);
+    }
+}
@@ -0,0 +1,48 @@
+package treasurehunter;
+
+import java.awt.Color;
+public class Colors {
+
+    public static final Color white = Color.white;
+    public static final Color blue = Color.blue;
+    public static final Color red = Color.red;
+    public static final Color brightYellow = Color.yellow;
+    public static final Color green = new Color(20,255,150);
+    public static final Color yellow = new Color(186,180,35);
+    public static final Color cyan = new Color(0,230,255);
+    public static final Color purple = new Color(160,32,240);
+    public static final Color gray = new Color(155,161,157);
+
+    // every color above, plus the black used for plain text
+    public static final Color[] all = {Color.black, white, blue, red, brightYellow, green, yellow, cyan, purple, gray};
+
+    // the same colors as ANSI escape codes, for a terminal
+    public static final String RESET = "\u001B[0m";
+    public static final String BLACK = "\u001B[0;30m";
+    public static final String RED = "\u001B[0;31m";
+    public static final String GREEN = "\u001B[0;32m";
+    public static final String YELLOW = "\u001B[0;33m";
+    public static final String BLUE = "\u001B[0;34m";
+    public static final String PURPLE = "\u001B[0;35m";
+    public static final String CYAN = "\u001B[0;36m";
+    public static final String WHITE = "\u001B[0;37m";
+    public static final String GRAY = "\u001B[0;90m";
+    public static final String BRIGHT_YELLOW = "\u001B[0;93m";
+
+    // the escape code for each color in all; plain text keeps the terminal's own color rather than turning black
+    private static final String[] ansi = {RESET, WHITE, BLUE, RED, BRIGHT_YELLOW, GREEN, YELLOW, CYAN, PURPLE, GRAY};
+
+    /**
+     * @param color One of the colors above.
+     * @return The ANSI escape code that shows text in that color, or RESET for any other color.
+     */
+    public static String ansi(Color color) {
+        for (int i = 0; i < all.length; i++) {
+            if (all[i].equals(color)) {
+                return ansi[i];
+            }
+        }
+        return RESET;
+    }
+
+}
\ No newline at end of file
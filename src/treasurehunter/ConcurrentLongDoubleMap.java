@@ -0,0 +1,120 @@
+package treasurehunter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash map from long keys to double values that many threads can read and write at once,
+ * with no boxing and no locks.<p>
+ * Keys and values sit in two flat arrays and collisions probe the next slot (open addressing). A thread claims a
+ * slot by swapping the key in with compareAndSet, then writes the value; a reader that finds the key before its
+ * value reports it missing. Writing the same key twice keeps the last value, which is fine for a memo where every
+ * thread would compute the same one. Entries are never removed and the map never grows: the table has at least
+ * twice as many slots as the capacity, and putting a new key into a map already holding capacity keys fails, so the
+ * table is never more than half full. Threads putting new keys at the same moment can each get in before they see
+ * the others' keys counted, so a map can end up holding one more key per such thread than its capacity.
+ */
+
+public class ConcurrentLongDoubleMap {
+    // the key of an empty slot, so 0 can't be stored
+    private static final long EMPTY = 0;
+
+    // instance variables
+    private AtomicLongArray keys;
+    // values are stored as their bits plus one, so that 0 means "not written yet"
+    private AtomicLongArray values;
+    private int mask;
+    private int localityBits;
+    private int capacity;
+    private LongAdder size = new LongAdder();
+
+    /**
+     * @param capacity The most entries the map may hold.
+     */
+    public ConcurrentLongDoubleMap(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Keys that only differ in their lowest bits can be kept in neighbouring slots, so that looking up a run of
+     * such keys one after the other mostly hits memory that has just been read.
+     *
+     * @param capacity The most entries the map may hold.
+     * @param localityBits How many of the lowest bits of a key only move it along from where the rest of the key puts it.
+     */
+    public ConcurrentLongDoubleMap(int capacity, int localityBits) {
+        this.localityBits = localityBits;
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(Math.max(capacity, 4) - 1) << 2; // the next power of two up, doubled
+        keys = new AtomicLongArray(slots);
+        values = new AtomicLongArray(slots);
+        mask = slots - 1;
+    }
+
+    /**
+     * @param key Any key but 0.
+     * @return The key's value, or NaN if it has none yet.
+     */
+    public double get(long key) {
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long found = keys.get(slot);
+            if (found == key) {
+                long bits = values.get(slot);
+                return bits == 0 ? Double.NaN : Double.longBitsToDouble(bits - 1);
+            }
+            if (found == EMPTY) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * @param key Any key but 0.
+     * @param value The value to store.
+     * @throws IllegalStateException if the key is new and the map already holds capacity keys.
+     */
+    public void put(long key, double value) {
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            long found = keys.get(slot);
+            if (found == EMPTY) {
+                if (size.sum() >= capacity) {
+                    // another thread may have put this very key, or another one, here since the slot was read
+                    found = keys.get(slot);
+                    if (found == EMPTY) {
+                        throw new IllegalStateException("The map is full at " + capacity + " entries");
+                    }
+                } else if (keys.compareAndSet(slot, EMPTY, key)) {
+                    size.increment();
+                    found = key;
+                } else {
+                    found = keys.get(slot); // someone else just took it
+                }
+            }
+            if (found == key) {
+                values.set(slot, Double.doubleToRawLongBits(value) + 1);
+                return;
+            }
+        }
+        throw new IllegalStateException("The map is full at " + size() + " entries");
+    }
+
+    /**
+     * @return how many keys are stored.
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    /**
+     * @return how many bytes the map's tables take up.
+     */
+    public long footprint() {
+        return 16L * keys.length();
+    }
+
+    private int hash(long key) {
+        long h = (key >>> localityBits) * 0x9E3779B97F4A7C15L; // spread the rest of the key across the table
+        return (int) (h ^ (h >>> 32)) + (int) (key & ((1L << localityBits) - 1));
+    }
+}
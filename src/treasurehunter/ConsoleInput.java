@@ -0,0 +1,26 @@
+package treasurehunter;
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * ConsoleInput reads lines typed into the console.<p>
+ * There is only one console, so there is only one ConsoleInput, and it owns the only Scanner on System.in.
+ */
+
+public class ConsoleInput implements InputSource {
+    public static final ConsoleInput INSTANCE = new ConsoleInput();
+
+    private final Scanner scanner = new Scanner(System.in);
+
+    private ConsoleInput() {
+    }
+
+    public synchronized String nextLine() {
+        try {
+            return scanner.nextLine();
+        } catch (NoSuchElementException e) {
+            return null; // the console was closed
+        }
+    }
+}
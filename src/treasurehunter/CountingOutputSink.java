@@ -0,0 +1,42 @@
+package treasurehunter;
+
+import java.awt.Color;
+
+/**
+ * The CountingOutputSink throws text away but keeps count of it, so that a headless run can still
+ * tell how much would have been drawn. It belongs to a single game and is not thread safe.
+ */
+
+public class CountingOutputSink implements OutputSink {
+    // instance variables
+    private long fragments;
+    private long characters;
+    private long clears;
+
+    public void addTextToWindow(String text, Color color) {
+        fragments++;
+        characters += text.length();
+    }
+
+    public void addTextToWindow(String text) {
+        fragments++;
+        characters += text.length();
+    }
+
+    public void clear() {
+        clears++;
+    }
+
+    // accessors
+    public long getFragments() {
+        return fragments;
+    }
+
+    public long getCharacters() {
+        return characters;
+    }
+
+    public long getClears() {
+        return clears;
+    }
+}
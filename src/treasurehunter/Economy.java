@@ -0,0 +1,149 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An Economy is how money works in one game mode: the gold every hunter starts with, the chance of a tough town,
+ * the markdown on items sold back and a scale on every item's cost. Every mode has one built in (see of());
+ * BalanceTuner searches for others, and a Balance carries them to the games that play with them.<p>
+ * An Economy never changes; step() makes a new one. Its PriceCatalog is built once and shared by every shop.
+ */
+
+public class Economy {
+    // instance variables
+    private final GameMode mode;
+    private final int startingGold;
+    private final double toughness;
+    private final double markdown;
+    private final double priceScale;
+    private final PriceCatalog prices;
+
+    /**
+     * Builds an economy, keeping each knob within its limits.
+     *
+     * @param mode The mode it is played in, which decides the sword and easy selling.
+     * @param startingGold The gold every hunter starts with, from 1 to 200.
+     * @param toughness The chance of a tough town, from 0 to 1.
+     * @param markdown Percentage of markdown for selling items in decimal format, from 0 to 1.
+     * @param priceScale What every item costs compared to the standard costs, from 0.25 to 4.
+     */
+    public Economy(GameMode mode, int startingGold, double toughness, double markdown, double priceScale) {
+        this.mode = mode;
+        this.startingGold = Math.max(1, Math.min(200, startingGold));
+        this.toughness = round(Math.max(0, Math.min(1, toughness)));
+        this.markdown = round(Math.max(0, Math.min(1, markdown)));
+        this.priceScale = round(Math.max(0.25, Math.min(4, priceScale)));
+        prices = new PriceCatalog(PriceCatalog.scaledCosts(this.priceScale), this.markdown, mode.hasSword(), mode.isEasy());
+    }
+
+    /**
+     * @return the economy built into the mode.
+     */
+    public static Economy of(GameMode mode) {
+        return new Economy(mode, mode.getStartingGold(), mode.getToughness(), mode.getMarkdown(), 1);
+    }
+
+    /**
+     * @return how far each knob moves at first when tuning: gold, toughness, markdown, price scale.
+     */
+    static double[] firstSteps() {
+        return new double[] {8, 0.2, 0.2, 0.4};
+    }
+
+    /**
+     * @return the same economy with one knob moved by the given amount, as far as its limits allow.
+     */
+    Economy step(int knob, double by) {
+        switch (knob) {
+            case 0: return new Economy(mode, startingGold + (int) Math.round(by), toughness, markdown, priceScale);
+            case 1: return new Economy(mode, startingGold, toughness + by, markdown, priceScale);
+            case 2: return new Economy(mode, startingGold, toughness, markdown + by, priceScale);
+            default: return new Economy(mode, startingGold, toughness, markdown, priceScale + by);
+        }
+    }
+
+    /**
+     * Writes the four knobs; the mode is written by whoever knows it.
+     *
+     * @param out Where the economy is written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(startingGold);
+        out.writeDouble(toughness);
+        out.writeDouble(markdown);
+        out.writeDouble(priceScale);
+    }
+
+    /**
+     * Reads back an economy written by write().
+     *
+     * @param in Where the economy is read from.
+     * @param mode The mode it is played in.
+     * @return The economy.
+     * @throws IOException if a knob is outside its limits.
+     */
+    public static Economy read(DataInput in, GameMode mode) throws IOException {
+        int startingGold = in.readInt();
+        double toughness = in.readDouble();
+        double markdown = in.readDouble();
+        double priceScale = in.readDouble();
+        Economy economy = new Economy(mode, startingGold, toughness, markdown, priceScale);
+        if (economy.startingGold != startingGold || economy.toughness != toughness
+                || economy.markdown != markdown || economy.priceScale != priceScale) {
+            throw new IOException("Bad economy: " + startingGold + " gold, toughness " + toughness
+                    + ", markdown " + markdown + ", prices x" + priceScale);
+        }
+        return economy;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0; // keeps halved steps from piling up rounding errors
+    }
+
+    // accessors
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public int getStartingGold() {
+        return startingGold;
+    }
+
+    public double getToughness() {
+        return toughness;
+    }
+
+    public double getMarkdown() {
+        return markdown;
+    }
+
+    public double getPriceScale() {
+        return priceScale;
+    }
+
+    /**
+     * @return what shops charge and pay with this economy; one catalog is shared by every shop.
+     */
+    public PriceCatalog getPrices() {
+        return prices;
+    }
+
+    public boolean equals(Object other) {
+        if (!(other instanceof Economy)) {
+            return false;
+        }
+        Economy economy = (Economy) other;
+        return mode == economy.mode && startingGold == economy.startingGold && toughness == economy.toughness
+                && markdown == economy.markdown && priceScale == economy.priceScale;
+    }
+
+    public int hashCode() {
+        return mode.ordinal() * 961 + startingGold * 31 + Double.hashCode(toughness + 7 * markdown + 53 * priceScale);
+    }
+
+    public String toString() {
+        return String.format("%d gold, toughness %.3f, markdown %.3f, prices x%.3f", startingGold, toughness, markdown, priceScale);
+    }
+}
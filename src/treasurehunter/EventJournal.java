@@ -0,0 +1,136 @@
+package treasurehunter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The EventJournal appends every event of a game to a file, as a trail that can be checked when a player disputes
+ * what happened and that JournalReplayer can rebuild the game's state from.<p>
+ * The file is a 16 byte header followed by fixed-width 16 byte records:
+ * <pre>
+ *   0  byte   event code (see GameEvent.getCode()); 0 marks the end of the journal
+ *   1  byte   unused
+ *   2  short  subject
+ *   4  int    value
+ *   8  long   time of the event, in milliseconds since the epoch
+ * </pre>
+ * Records are written straight into a memory-mapped chunk of the file, so logging an event is a handful of stores
+ * with no system call; the chunk is mapped afresh every RECORDS_PER_CHUNK events. The event code is written last,
+ * so a record cut short by a crash reads as the end of the journal. The file grows a chunk at a time and the unused
+ * end of the last chunk stays zero.<p>
+ * Opening an existing journal carries on after its last record. A journal belongs to a single game (or a series of
+ * games played one after another) and is not thread safe.
+ */
+
+public class EventJournal implements EventLog, Closeable {
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 16;
+    private static final int MAGIC = 0x54484a4c; // "THJL"
+    private static final int VERSION = 1;
+    private static final int RECORDS_PER_CHUNK = 1 << 16; // 1 MB at a time
+
+    // instance variables
+    private FileChannel channel;
+    private MappedByteBuffer chunk;
+    private long chunkFirstRecord;
+    private long records;
+
+    /**
+     * Opens a journal, creating it if it doesn't exist yet.
+     *
+     * @param file The journal file.
+     */
+    public EventJournal(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).flip();
+            channel.write(header, 0);
+        } else {
+            checkHeader(channel);
+        }
+        records = 0;
+        mapChunkFor(0);
+        while (recordCodeAt(records) != 0) {
+            records++; // skip what is already there
+        }
+    }
+
+    /**
+     * Makes sure a file is a journal this version can read.
+     *
+     * @param channel The open journal file.
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not an event journal");
+        }
+        int version = header.getInt();
+        if (version != VERSION || header.getInt() != RECORD_SIZE) {
+            throw new IOException("Unsupported event journal version " + version);
+        }
+    }
+
+    public void record(GameEvent event, int subject, int value) {
+        if (records - chunkFirstRecord >= RECORDS_PER_CHUNK) {
+            mapChunkFor(records);
+        }
+        int offset = (int) (records - chunkFirstRecord) * RECORD_SIZE;
+        chunk.putShort(offset + 2, (short) subject);
+        chunk.putInt(offset + 4, value);
+        chunk.putLong(offset + 8, System.currentTimeMillis());
+        chunk.put(offset, (byte) event.getCode()); // last, so the record only counts once it is whole
+        records++;
+    }
+
+    /**
+     * @return the code of the given record, mapping its chunk if need be; 0 if nothing has been written there.
+     */
+    private int recordCodeAt(long record) {
+        if (record - chunkFirstRecord >= RECORDS_PER_CHUNK) {
+            mapChunkFor(record);
+        }
+        return chunk.get((int) (record - chunkFirstRecord) * RECORD_SIZE) & 0xff;
+    }
+
+    /**
+     * Maps the chunk of the file that holds the given record, growing the file if it isn't that long yet.
+     */
+    private void mapChunkFor(long record) {
+        chunkFirstRecord = record - record % RECORDS_PER_CHUNK;
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + chunkFirstRecord * RECORD_SIZE,
+                    (long) RECORDS_PER_CHUNK * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return how many events the journal holds.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Makes sure every event recorded so far is on disk, not just in the page cache.
+     */
+    public void force() {
+        chunk.force();
+    }
+
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,18 @@
+package treasurehunter;
+
+/**
+ * An EventLog is told about everything that changes a game's state, so the game can be audited or rebuilt later
+ * (see EventJournal and JournalReplayer). Games that nobody needs to audit use NullEventLog.
+ */
+
+public interface EventLog {
+
+    /**
+     * Records that something happened.
+     *
+     * @param event What happened.
+     * @param subject What it happened to; see GameEvent.
+     * @param value How much; see GameEvent.
+     */
+    void record(GameEvent event, int subject, int value);
+}
@@ -0,0 +1,26 @@
+package treasurehunter;
+
+/**
+ * FlushingInput makes sure the player can see the question before the game waits for an answer:
+ * it flushes the game's output before every line it reads.
+ */
+
+public class FlushingInput implements InputSource {
+    // instance variables
+    private InputSource input;
+    private OutputSink output;
+
+    /**
+     * @param input Where the lines come from.
+     * @param output What to flush before each line is read.
+     */
+    public FlushingInput(InputSource input, OutputSink output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    public String nextLine() {
+        output.flush();
+        return input.nextLine();
+    }
+}
@@ -0,0 +1,41 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.Objects;
+
+/**
+ * A Fragment is one piece of text together with the color it is shown in.
+ * Two fragments are equal if they have the same text and color, which is how the Screen
+ * tells whether a region has changed since it was last drawn.
+ */
+
+public final class Fragment {
+    private final String text;
+    private final Color color;
+
+    public Fragment(String text, Color color) {
+        this.text = text;
+        this.color = color;
+    }
+
+    // accessors
+    public String getText() {
+        return text;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public boolean equals(Object other) {
+        if (!(other instanceof Fragment)) {
+            return false;
+        }
+        Fragment fragment = (Fragment) other;
+        return text.equals(fragment.text) && color.equals(fragment.color);
+    }
+
+    public int hashCode() {
+        return Objects.hash(text, color);
+    }
+}
@@ -0,0 +1,156 @@
+package treasurehunter;
+
+import java.util.SplittableRandom;
+
+/**
+ * The GameContext holds everything that belongs to one player's game: its seed and random source,
+ * where its input comes from, where its text goes, the mode picked at the start, the balance it is played with
+ * and whether the game is still going.<p>
+ * Nothing about a game is static, so any number of games can run in one program at once,
+ * e.g. one per connection in the GameServer. A context belongs to a single game and is not thread safe.
+ */
+
+public class GameContext {
+    // instance variables
+    private long seed;
+    private SplittableRandom random;
+    private InputSource input;
+    private OutputSink output;
+    private GameMode mode;
+    private Balance balance;
+    private boolean running;
+    private EventLog eventLog;
+    private Leaderboard leaderboard; // null if finished games aren't kept
+    private Market market; // null if shop prices never move
+    private boolean worldKept;
+
+    /**
+     * @param seed The seed for every random roll in the game.
+     * @param input Where every line the player types comes from.
+     * @param output Where the game is shown.
+     */
+    public GameContext(long seed, InputSource input, OutputSink output) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+        this.input = input;
+        this.output = output;
+        mode = GameMode.NORMAL;
+        balance = Balance.BUILT_IN;
+        running = true;
+        eventLog = NullEventLog.INSTANCE;
+    }
+
+    // accessors
+    public long getSeed() {
+        return seed;
+    }
+
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public InputSource getInput() {
+        return input;
+    }
+
+    public OutputSink getOutput() {
+        return output;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public boolean isEasyMode() {
+        return mode.isEasy();
+    }
+
+    public Balance getBalance() {
+        return balance;
+    }
+
+    /**
+     * @param balance The economy of every mode, e.g. a tuned one from Balance.load(); the game plays with its
+     * mode's economy from the balance it has when the mode is picked.
+     */
+    public void setBalance(Balance balance) {
+        this.balance = balance;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    /**
+     * @param eventLog Where everything that changes the game is recorded, e.g. an EventJournal.
+     */
+    public void setEventLog(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * @param leaderboard Where the game's result is recorded when it ends, or null to not record it.
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    public Market getMarket() {
+        return market;
+    }
+
+    /**
+     * @param market The market every shop in the game trades in, or null to keep the catalog's prices.
+     */
+    public void setMarket(Market market) {
+        this.market = market;
+    }
+
+    /**
+     * @return true if the game's towns are kept in a World, instead of a fresh town being rolled every move.
+     */
+    public boolean isWorldKept() {
+        return worldKept;
+    }
+
+    /**
+     * @param worldKept Whether the game's towns are kept in a World; set it before the game starts.
+     * The world lives as long as the game, and is saved with it (see TreasureHunter.save()).
+     */
+    public void setWorldKept(boolean worldKept) {
+        this.worldKept = worldKept;
+    }
+
+    /**
+     * Starts the game's random source over from a new seed, e.g. to carry on a saved game from where it was saved.
+     * Anything holding the old random source has to be given the new one.
+     *
+     * @param seed The seed every roll is made from from now on.
+     */
+    public void reseed(long seed) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @param mode The mode the player picked.
+     */
+    public void setMode(GameMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Ends the game at the start of the next turn, e.g. because the hunter won or went broke.
+     */
+    public void endRun() {
+        running = false;
+    }
+}
@@ -0,0 +1,52 @@
+package treasurehunter;
+
+/**
+ * The GameEvent enum lists everything that is written to an EventLog.<p>
+ * Each event carries a subject and a value, whose meaning depends on the event:
+ * <ul>
+ * <li>GAME_STARTED: subject is the mode's ordinal times 256 plus the kit capacity, value is the starting gold</li>
+ * <li>TEST_MODE: nothing</li>
+ * <li>COMMAND: subject is the first character of the menu choice</li>
+ * <li>TOWN_ENTERED: subject is the ordinal of the Item needed to leave, value is the Treasure's ordinal, plus 256 if the town is tough</li>
+ * <li>TOWN_SEARCHED, TOWN_DUG, HUNTER_BROKE: nothing</li>
+ * <li>GOLD_CHANGED: value is the change asked for (the hunter's gold never drops below 0)</li>
+ * <li>ITEM_BOUGHT, ITEM_SOLD: subject is the Item's ordinal, value is the price paid</li>
+ * <li>ITEM_BROKEN: subject is the Item's ordinal</li>
+ * <li>TREASURE_FOUND: subject is the Treasure's ordinal</li>
+ * </ul>
+ */
+
+public enum GameEvent {
+    GAME_STARTED,
+    TEST_MODE,
+    COMMAND,
+    TOWN_ENTERED,
+    TOWN_SEARCHED,
+    TOWN_DUG,
+    HUNTER_BROKE,
+    GOLD_CHANGED,
+    ITEM_BOUGHT,
+    ITEM_SOLD,
+    ITEM_BROKEN,
+    TREASURE_FOUND;
+
+    private static final GameEvent[] BY_CODE = values();
+
+    /**
+     * @return the event's code in a journal record; 0 is never used, so an empty record can't be mistaken for an event.
+     */
+    public int getCode() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * @param code A code from getCode().
+     * @return The event with that code, or null if there is none.
+     */
+    public static GameEvent fromCode(int code) {
+        if (code < 1 || code > BY_CODE.length) {
+            return null;
+        }
+        return BY_CODE[code - 1];
+    }
+}
@@ -0,0 +1,86 @@
+package treasurehunter;
+
+/**
+ * The GameMode enum holds the settings that change between the game modes of the Treasure Hunt game.<p>
+ * The interactive game and the headless simulation both read their starting gold, kit size,
+ * shop prices and town toughness from here so that the two can never drift apart.<p>
+ * The starting gold, markdown and toughness here are each mode's built-in economy (see Economy.of());
+ * a game can be played with a tuned one instead by handing its GameContext a Balance.
+ */
+
+public enum GameMode {
+    EASY("e", 40, 7, 0.50, 0.4, false),
+    NORMAL("n", 20, 7, 0.50, 0.4, false),
+    HARD("h", 20, 7, 0.25, 0.75, false),
+    SAMURAI("s", 20, 8, 0.50, 0.4, true); //+1 inventory capacity for the sword
+
+    private final String choice;
+    private final int startingGold;
+    private final int inventoryCapacity;
+    private final double markdown;
+    private final double toughness;
+    private final boolean sword;
+    private final PriceCatalog prices;
+
+    GameMode(String choice, int startingGold, int inventoryCapacity, double markdown, double toughness, boolean sword) {
+        this.choice = choice;
+        this.startingGold = startingGold;
+        this.inventoryCapacity = inventoryCapacity;
+        this.markdown = markdown;
+        this.toughness = toughness;
+        this.sword = sword;
+        // EASY can't be compared against while it is being built
+        prices = new PriceCatalog(markdown, sword, choice.equals("e"));
+    }
+
+    /**
+     * Finds the mode that matches what the player typed on the mode select screen.
+     *
+     * @param choice The player's (lower case) choice.
+     * @return The matching mode, or NORMAL if nothing matches.
+     */
+    public static GameMode fromChoice(String choice) {
+        for (GameMode mode : values()) {
+            if (mode.choice.equals(choice)) {
+                return mode;
+            }
+        }
+        return NORMAL;
+    }
+
+    // accessors
+    public String getChoice() {
+        return choice;
+    }
+
+    public int getStartingGold() {
+        return startingGold;
+    }
+
+    public int getInventoryCapacity() {
+        return inventoryCapacity;
+    }
+
+    public double getMarkdown() {
+        return markdown;
+    }
+
+    public double getToughness() {
+        return toughness;
+    }
+
+    /**
+     * @return what shops charge and pay in this mode with its built-in economy; one catalog is shared by every shop.
+     */
+    public PriceCatalog getPrices() {
+        return prices;
+    }
+
+    public boolean hasSword() {
+        return sword;
+    }
+
+    public boolean isEasy() {
+        return this == EASY;
+    }
+}
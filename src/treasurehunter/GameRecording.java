@@ -0,0 +1,224 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A GameRecording is everything needed to play a game again exactly: its seed, the balance it was played with and
+ * every line the player typed, including the name, the mode and the answers given in the shop. Alongside them it keeps the hunter's gold,
+ * kit and treasures each time the game asked for a line and once more when it ended.<p>
+ * Every roll in a game comes from its GameContext's seed and every line from its InputSource, so replaying the lines
+ * from the same seed must go through the same states. replay() does so with no output at all, as fast as the game
+ * can run, and reports the first state that came out different, which catches any change to Town or Shop
+ * that changes what happens.
+ */
+
+public class GameRecording {
+    // stands in for the hunter's state before there is a hunter, i.e. while the name and mode are asked for
+    private static final long NO_HUNTER = Long.MIN_VALUE;
+
+    // instance variables
+    private long seed;
+    private Balance balance;
+    private String[] lines;
+    private long[] states;
+
+    /**
+     * @param seed The seed the game was played with.
+     * @param lines Every line the game read, in order.
+     * @param states The hunter's state (see stateOf()) before each line was read, then once more at the end.
+     */
+    public GameRecording(long seed, String[] lines, long[] states) {
+        this(seed, Balance.BUILT_IN, lines, states);
+    }
+
+    /**
+     * @param seed The seed the game was played with.
+     * @param balance The economy of every mode the game was played with.
+     * @param lines Every line the game read, in order.
+     * @param states The hunter's state (see stateOf()) before each line was read, then once more at the end.
+     */
+    public GameRecording(long seed, Balance balance, String[] lines, long[] states) {
+        if (states.length != lines.length + 1) {
+            throw new IllegalArgumentException(lines.length + " lines need " + (lines.length + 1) + " states, not " + states.length);
+        }
+        this.seed = seed;
+        this.balance = balance;
+        this.lines = lines;
+        this.states = states;
+    }
+
+    /**
+     * Plays a game with the built-in economy and records it.
+     *
+     * @param seed The seed for every random roll in the game.
+     * @param input Where every line the player types comes from.
+     * @param output Where the game is shown.
+     * @return The recording of the game.
+     */
+    public static GameRecording record(long seed, InputSource input, OutputSink output) {
+        return record(seed, Balance.BUILT_IN, input, output);
+    }
+
+    /**
+     * Plays a game and records it.
+     *
+     * @param seed The seed for every random roll in the game.
+     * @param balance The economy of every mode, whichever the player picks.
+     * @param input Where every line the player types comes from.
+     * @param output Where the game is shown.
+     * @return The recording of the game.
+     */
+    public static GameRecording record(long seed, Balance balance, InputSource input, OutputSink output) {
+        Tape tape = new Tape(input);
+        GameContext context = new GameContext(seed, tape, output);
+        context.setBalance(balance);
+        TreasureHunter game = new TreasureHunter(context);
+        tape.game = game;
+        game.play();
+        return tape.toRecording(seed, balance);
+    }
+
+    /**
+     * Plays the recorded lines again from the recorded seed and balance, with no output.
+     *
+     * @return The index of the first state that came out different, or -1 if the game went exactly as recorded.
+     */
+    public int replay() {
+        GameRecording again = record(seed, balance, new ScriptInput(lines), NullOutputSink.INSTANCE);
+        return Arrays.mismatch(states, again.states);
+    }
+
+    /**
+     * Explains a difference found by replay().
+     *
+     * @param step What replay() returned.
+     * @return What was expected at that step and what happened instead.
+     */
+    public String describeMismatch(int step) {
+        GameRecording again = record(seed, balance, new ScriptInput(lines), NullOutputSink.INSTANCE);
+        String after = step == 0 ? "at the start" : "after \"" + lines[step - 1] + "\" (line " + step + ")";
+        return "seed " + seed + " " + after + ": expected " + describe(states, step) + " but got " + describe(again.states, step);
+    }
+
+    private static String describe(long[] states, int step) {
+        if (step >= states.length) {
+            return "the game to be over";
+        }
+        long state = states[step];
+        if (state == NO_HUNTER) {
+            return "no hunter yet";
+        }
+        return (int) (state >> 32) + " gold, kit " + Integer.toBinaryString((int) (state >>> 16) & 0xffff)
+                + ", treasures " + Integer.toBinaryString((int) state & 0xffff);
+    }
+
+    /**
+     * @return the hunter's gold, kit and treasures packed into one number: gold in the top half,
+     * then the kit and treasure bitmasks.
+     */
+    static long stateOf(Hunter hunter) {
+        if (hunter == null) {
+            return NO_HUNTER;
+        }
+        return (long) hunter.getGold() << 32 | (hunter.getKit() & 0xffff) << 16 | (hunter.getTreasures() & 0xffff);
+    }
+
+    /**
+     * Writes the recording: the seed, the balance (see Balance.write()), the number of lines, then each line
+     * followed by the state after it, with an unchanged state written as a single 0 byte.
+     *
+     * @param out Where the recording is written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        balance.write(out);
+        out.writeInt(lines.length);
+        out.writeLong(states[0]);
+        for (int i = 0; i < lines.length; i++) {
+            out.writeUTF(lines[i]);
+            if (states[i + 1] == states[i]) {
+                out.writeByte(0);
+            } else {
+                out.writeByte(1);
+                out.writeLong(states[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Reads back a recording written by write().
+     *
+     * @param in Where the recording is read from.
+     * @return The recording.
+     */
+    public static GameRecording read(DataInput in) throws IOException {
+        return read(in, true);
+    }
+
+    /**
+     * Reads back a recording written by write(), or by an older write() that didn't write the balance,
+     * when every game was played with the built-in one.
+     */
+    static GameRecording read(DataInput in, boolean withBalance) throws IOException {
+        long seed = in.readLong();
+        Balance balance = withBalance ? Balance.read(in) : Balance.BUILT_IN;
+        String[] lines = new String[in.readInt()];
+        long[] states = new long[lines.length + 1];
+        states[0] = in.readLong();
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = in.readUTF();
+            states[i + 1] = in.readByte() == 0 ? states[i] : in.readLong();
+        }
+        return new GameRecording(seed, balance, lines, states);
+    }
+
+    // accessors
+    public long getSeed() {
+        return seed;
+    }
+
+    public Balance getBalance() {
+        return balance;
+    }
+
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    /**
+     * Passes lines on from another input, noting each one and the hunter's state just before it was asked for.
+     */
+    private static class Tape implements InputSource {
+        private InputSource input;
+        private TreasureHunter game; // set once the game is built, before it reads anything
+        private List<String> lines = new ArrayList<>();
+        private List<Long> states = new ArrayList<>();
+
+        Tape(InputSource input) {
+            this.input = input;
+        }
+
+        public String nextLine() {
+            String line = input.nextLine();
+            if (line != null) { // the end of input isn't a line, and a replay reaches it the same way
+                states.add(stateOf(game.getHunter()));
+                lines.add(line);
+            }
+            return line;
+        }
+
+        GameRecording toRecording(long seed, Balance balance) {
+            states.add(stateOf(game.getHunter()));
+            long[] packed = new long[states.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = states.get(i);
+            }
+            return new GameRecording(seed, balance, lines.toArray(new String[0]), packed);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package treasurehunter;
+
+/**
+ * A GameResult is how one finished game turned out: who played it, in which mode, how it ended,
+ * the gold the hunter finished with and how many turns it took.<p>
+ * Results are ranked by outcome first (a win beats giving up, which beats going broke), then by gold,
+ * then by who got there in fewer turns; getRank() packs all three into one number that sorts the same way.
+ */
+
+public class GameResult {
+
+    /**
+     * How a game ended, from worst to best.
+     */
+    public enum Outcome {
+        LOST, QUIT, WON
+    }
+
+    // the widest turn count the rank has room for; longer games rank as if they took this many
+    private static final int MAX_RANKED_TURNS = (1 << 20) - 1;
+
+    // instance variables
+    private String name;
+    private GameMode mode;
+    private Outcome outcome;
+    private int gold;
+    private int turns;
+    private long millis;
+
+    /**
+     * @param name The hunter's name.
+     * @param mode The mode the game was played in.
+     * @param outcome How the game ended.
+     * @param gold The gold the hunter finished with.
+     * @param turns How many turns the game took.
+     * @param millis When the game ended, in milliseconds since the epoch.
+     */
+    public GameResult(String name, GameMode mode, Outcome outcome, int gold, int turns, long millis) {
+        this.name = name;
+        this.mode = mode;
+        this.outcome = outcome;
+        this.gold = gold;
+        this.turns = turns;
+        this.millis = millis;
+    }
+
+    // accessors
+    public String getName() {
+        return name;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public int getGold() {
+        return gold;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return a number that is bigger the better the result, and never 0: the outcome, then the gold,
+     * then the turns left over from the most a rank can hold.
+     */
+    public long getRank() {
+        long turnsLeft = MAX_RANKED_TURNS - Math.min(Math.max(turns, 0), MAX_RANKED_TURNS);
+        return (long) (outcome.ordinal() + 1) << 51 | (long) Math.max(gold, 0) << 20 | turnsLeft;
+    }
+
+    public String toString() {
+        return name + " (" + mode + ") " + outcome + " with " + gold + " gold in " + turns + " turns";
+    }
+}
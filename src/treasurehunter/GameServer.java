@@ -0,0 +1,486 @@
+package treasurehunter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameServer hosts a game for every player who connects to it, all in one program.<p>
+ * Each connection gets its own GameContext and plays on its own virtual thread, so a player who is thinking
+ * costs a parked virtual thread rather than an operating system thread, and thousands can play at once.<p>
+ * The game is sent as plain text. Every time the game waits for a line, everything so far is sent followed by PROMPT,
+ * so a program on the other end knows the turn is over. The server only listens on the loopback address.<p>
+ * A player who sends no line for the idle time (see setIdleMillis()) has their game parked in a SessionStore,
+ * and their virtual thread, context, reader and writer are all let go: an idle session is its socket, registered
+ * with one selector that watches every idle socket on a thread of its own, plus four longs in the store (and the
+ * game's World, if it keeps one). As soon as the player sends something, a new virtual thread picks the game back up
+ * in a new session and it carries on from the menu: a question the game was waiting on, e.g. what to buy, is asked
+ * again from the start of the turn.
+ */
+
+public class GameServer implements Closeable {
+    /**
+     * Sent after the game's text whenever the game is waiting for the player to type a line.
+     */
+    public static final String PROMPT = "\n> ";
+
+    private static final int DEFAULT_PORT = 4000;
+    // how many connections may wait to be accepted, so a burst of players isn't turned away
+    private static final int BACKLOG = 4096;
+    // the parked id of a session that isn't coming back from being idle
+    private static final int NEW_SESSION = -1;
+    private static final String IDLE_MESSAGE = "\n\nYou've been away a while, so your game has been put away."
+            + "\nPress enter to pick it back up.";
+
+    // instance variables
+    private ServerSocketChannel server;
+    private ExecutorService sessions;
+    private SplittableRandom seeds;
+    private AtomicInteger activeSessions = new AtomicInteger();
+    private AtomicInteger peakSessions = new AtomicInteger();
+    private AtomicLong finishedSessions = new AtomicLong();
+    private SessionStore parked = new SessionStore();
+    private Selector idleSockets; // null until the first game is parked
+    private Queue<IdleSession> toWatch = new ConcurrentLinkedQueue<>(); // parked, but not yet registered with idleSockets
+    private int idleMillis; // 0 if games are never put away
+    private boolean worldKept;
+    private Balance balance = Balance.BUILT_IN;
+    private Leaderboard leaderboard; // null if finished games aren't kept
+    private Market market; // null if shop prices never move
+
+    /**
+     * Starts listening, but doesn't accept anyone until serve() is called.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param seed The seed every session's seed is drawn from.
+     */
+    public GameServer(int port, long seed) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        sessions = Executors.newVirtualThreadPerTaskExecutor();
+        seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Accepts players until the server is closed, starting a game for each one.
+     */
+    public void serve() {
+        while (server.isOpen()) {
+            SocketChannel socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                break; // the server was closed
+            }
+            int active = activeSessions.incrementAndGet();
+            peakSessions.accumulateAndGet(active, Math::max);
+            long seed = seeds.nextLong(); // only this thread touches seeds
+            sessions.submit(() -> play(socket, seed, NEW_SESSION));
+        }
+    }
+
+    /**
+     * Plays a game over a connection until it ends, and then hangs up, or until the player goes idle, and then
+     * parks the game and hands the connection to the idle watcher.
+     *
+     * @param socket The connection, in blocking mode or about to be put back in it.
+     * @param seed The seed for a new game.
+     * @param parkedId The id the game was parked as if the player is coming back to it, or NEW_SESSION.
+     */
+    private void play(SocketChannel socket, long seed, int parkedId) {
+        boolean idle = false;
+        try {
+            socket.configureBlocking(true);
+            socket.socket().setTcpNoDelay(true); // a turn is one write, so don't wait to join it with the next
+            TextOutputSink out = new TextOutputSink(new OutputStreamWriter(socket.socket().getOutputStream(), StandardCharsets.UTF_8));
+            SessionInput input = new SessionInput(socket.socket(), out, idleMillis);
+            GameContext game = new GameContext(seed, input, out);
+            game.setLeaderboard(leaderboard);
+            game.setMarket(market);
+            game.setWorldKept(worldKept);
+            game.setBalance(balance);
+            TreasureHunter hunt;
+            if (parkedId == NEW_SESSION) {
+                hunt = new TreasureHunter(game);
+            } else {
+                input.waking = true;
+                try {
+                    if (input.readLine() == null) {
+                        parked.discard(parkedId); // hung up while away
+                        return;
+                    }
+                } catch (IdleException e) {
+                    idle = true; // sent something, but never a whole line
+                    watch(socket, parkedId);
+                    return;
+                }
+                input.waking = false;
+                hunt = parked.resume(parkedId, game);
+            }
+            input.game = hunt;
+            try {
+                if (parkedId == NEW_SESSION) {
+                    hunt.play();
+                } else {
+                    hunt.resume();
+                }
+            } catch (IdleException e) {
+                int id = parked.park(hunt);
+                out.addTextToWindow(IDLE_MESSAGE);
+                out.addTextToWindow(PROMPT);
+                out.flush();
+                idle = true;
+                watch(socket, id);
+                return;
+            }
+            out.flush();
+        } catch (IOException e) {
+            // the player hung up; there is nobody left to tell
+        } finally {
+            if (!idle) {
+                hangUp(socket);
+            }
+        }
+    }
+
+    private void hangUp(SocketChannel socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // closed either way
+        }
+        activeSessions.decrementAndGet();
+        finishedSessions.incrementAndGet();
+    }
+
+    /**
+     * Hands an idle player's connection to the idle watcher, starting the watcher the first time.
+     */
+    private synchronized void watch(SocketChannel socket, int parkedId) throws IOException {
+        if (!server.isOpen()) {
+            parked.discard(parkedId);
+            hangUp(socket); // closing down, so there is no coming back
+            return;
+        }
+        if (idleSockets == null) {
+            idleSockets = Selector.open();
+            Thread watcher = new Thread(this::watchIdleSockets, "idle sessions");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        toWatch.add(new IdleSession(socket, parkedId));
+        idleSockets.wakeup(); // registering is left to the watcher, which owns the selector
+    }
+
+    /**
+     * Waits for idle players to send something, on a thread of its own, and starts a session to pick each one's game
+     * back up, until the server is closed.
+     */
+    private void watchIdleSockets() {
+        Selector selector = idleSockets;
+        try {
+            while (server.isOpen()) {
+                if (selector.selectedKeys().isEmpty()) {
+                    selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                for (IdleSession session; (session = toWatch.poll()) != null; ) {
+                    try {
+                        session.socket.configureBlocking(false);
+                        session.socket.register(selector, SelectionKey.OP_READ, session);
+                    } catch (IOException e) {
+                        parked.discard(session.parkedId);
+                        hangUp(session.socket);
+                    }
+                }
+                List<IdleSession> woken = new ArrayList<>();
+                for (Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); ) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    key.cancel();
+                    woken.add((IdleSession) key.attachment());
+                }
+                if (!woken.isEmpty()) {
+                    selector.selectNow(); // finishes deregistering, so the sockets can block again
+                    for (IdleSession session : woken) {
+                        sessions.submit(() -> play(session.socket, 0, session.parkedId));
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                hangUp(((IdleSession) key.attachment()).socket);
+            }
+            for (IdleSession session; (session = toWatch.poll()) != null; ) {
+                hangUp(session.socket);
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException e) {
+            // nothing more can be watched
+        }
+    }
+
+    // accessors
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return how many players are connected, whether playing or idle.
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public int getPeakSessions() {
+        return peakSessions.get();
+    }
+
+    public long getFinishedSessions() {
+        return finishedSessions.get();
+    }
+
+    /**
+     * @return how many sessions have their game parked right now, waiting for the player to come back.
+     */
+    public int getIdleSessions() {
+        return parked.size();
+    }
+
+    /**
+     * @param worldKept Whether every session's towns are kept in a World of its own (see GameContext.setWorldKept()).
+     * Set it before serve().
+     */
+    public void setWorldKept(boolean worldKept) {
+        this.worldKept = worldKept;
+    }
+
+    /**
+     * @param balance The economy every session's game is played with, e.g. a tuned one from Balance.load().
+     * Set it before serve().
+     */
+    public void setBalance(Balance balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * @param idleMillis How long a player can go without typing before their game is put away, or 0 to never put
+     * games away. Set it before serve().
+     */
+    public void setIdleMillis(int idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * @param leaderboard Where every session's result is recorded, or null to not record them. Set it before serve().
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * @param market The market every session's shops trade in, or null to keep the catalog's prices. Set it before serve().
+     */
+    public void setMarket(Market market) {
+        this.market = market;
+    }
+
+    /**
+     * Stops accepting players and ends every game still going, idle or not.
+     */
+    public void close() throws IOException {
+        server.close();
+        sessions.shutdownNow(); // interrupting a virtual thread closes the socket it is reading from
+        synchronized (this) {
+            if (idleSockets != null) {
+                idleSockets.wakeup(); // the watcher hangs up on everyone still idle
+            }
+        }
+    }
+
+    /**
+     * An idle player's connection and the id their game is parked as.
+     */
+    private static class IdleSession {
+        private SocketChannel socket;
+        private int parkedId;
+
+        IdleSession(SocketChannel socket, int parkedId) {
+            this.socket = socket;
+            this.parkedId = parkedId;
+        }
+    }
+
+    /**
+     * Reads a connection's lines, first sending the game's text and the prompt so the player can see what to answer.<p>
+     * Lines are put together here rather than by a BufferedReader, so a read that times out never loses what the
+     * player has typed of a line, and the idle time is counted from the last whole line they sent.
+     */
+    private static class SessionInput implements InputSource {
+        private static final int BUFFER_SIZE = 512;
+
+        private Socket socket;
+        private InputStream in;
+        private TextOutputSink out;
+        private int idleMillis; // 0 if the player is never idle
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int start; // buffer[start..end) has been read but not yet looked at
+        private int end;
+        private ByteArrayOutputStream line = new ByteArrayOutputStream(); // the line so far
+        private long lastLineNanos = System.nanoTime();
+        private TreasureHunter game; // null while there is no game to put away
+        private boolean waking; // whether the player is coming back to a parked game, which can go back to being idle
+
+        SessionInput(Socket socket, TextOutputSink out, int idleMillis) throws IOException {
+            this.socket = socket;
+            in = socket.getInputStream();
+            this.out = out;
+            this.idleMillis = idleMillis;
+        }
+
+        public String nextLine() {
+            out.addTextToWindow(PROMPT);
+            out.flush();
+            if (out.hasFailed()) {
+                return null; // nobody is listening any more
+            }
+            try {
+                return readLine();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return the next line, without its line break, or null if the player hung up.
+         * @throws IdleException if a game can be put away and the player has sent no whole line for the idle time;
+         * whatever they had typed of the next line is dropped, as the question it answers goes with the game.
+         */
+        String readLine() throws IOException {
+            while (true) {
+                for (int i = start; i < end; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, start, i - start);
+                        start = i + 1;
+                        return takeLine();
+                    }
+                }
+                line.write(buffer, start, end - start);
+                start = 0;
+                end = 0;
+                int read = waitForInput();
+                if (read < 0) {
+                    return line.size() > 0 ? takeLine() : null; // the last line needn't end in a line break
+                }
+                end = read;
+            }
+        }
+
+        private String takeLine() {
+            byte[] bytes = line.toByteArray();
+            line.reset();
+            lastLineNanos = System.nanoTime();
+            int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads whatever arrives into the buffer, waiting no longer than what is left of the idle time.
+         *
+         * @return how many bytes were read, or -1 if the player hung up.
+         */
+        private int waitForInput() throws IOException {
+            while (true) {
+                int timeout = 0;
+                if (idleMillis > 0) {
+                    long left = idleMillis - (System.nanoTime() - lastLineNanos) / 1_000_000;
+                    if (left <= 0) {
+                        if (waking || (game != null && game.getHunter() != null)) {
+                            line.reset();
+                            throw new IdleException(); // unwinds the game back to play(), which parks it
+                        }
+                        // still picking a name and mode, which can't be parked, so keep waiting
+                        lastLineNanos = System.nanoTime();
+                        left = idleMillis;
+                    }
+                    timeout = (int) left;
+                }
+                socket.setSoTimeout(timeout);
+                try {
+                    return in.read(buffer, 0, buffer.length);
+                } catch (SocketTimeoutException e) {
+                    // see whether it has been the idle time since the last whole line
+                }
+            }
+        }
+    }
+
+    /**
+     * Thrown out of a game whose player has been idle too long.
+     */
+    private static class IdleException extends RuntimeException {
+        IdleException() {
+            super(null, null, false, false); // thrown to unwind, never shown, so no stack trace
+        }
+    }
+
+    /**
+     * Runs the server until the program is stopped.<p>
+     * Arguments, all optional: port (default 4000), seed, leaderboard file (see Leaderboard).
+     * --idle=SECONDS puts away the game of a player who types nothing for that long (default 300, 0 for never),
+     * --world keeps every session's towns in a World of its own, and --balance=FILE plays every game with the
+     * economy BalanceTuner wrote to the file instead of the built-in one.
+     * Every session's shops trade in one Market, so prices move with what all the players buy and sell.
+     */
+    public static void main(String[] args) throws IOException {
+        int idleSeconds = 300;
+        boolean worldKept = false;
+        List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--idle=")) {
+                idleSeconds = Integer.parseInt(arg.substring("--idle=".length()));
+            } else if (arg.equals("--world")) {
+                worldKept = true;
+            } else {
+                rest.add(arg);
+            }
+        }
+        Balance balance = Balance.fromOption(rest);
+        int port = rest.size() > 0 ? Integer.parseInt(rest.get(0)) : DEFAULT_PORT;
+        long seed = rest.size() > 1 ? Long.parseLong(rest.get(1)) : new SplittableRandom().nextLong();
+        try (GameServer server = new GameServer(port, seed);
+             Leaderboard leaderboard = rest.size() > 2 ? new Leaderboard(Paths.get(rest.get(2))) : null;
+             Market market = new Market().start(Market.DEFAULT_TICK_MILLIS)) {
+            server.setIdleMillis(idleSeconds * 1000);
+            server.setWorldKept(worldKept);
+            server.setBalance(balance);
+            server.setLeaderboard(leaderboard);
+            server.setMarket(market); // every player's trades move everyone's prices
+            System.out.println("Treasure Hunter server listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+            server.serve();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package treasurehunter;
+
+/**
+ * A simple Policy that plays the way most players do:
+ * grab the sword if there is one, search and dig every town, buy whatever the terrain needs,
+ * and brawl for gold when it can't afford to move on.
+ */
+
+public class GreedyPolicy implements Policy {
+    // keep this much gold spare before spending it on a shovel
+    private static final int SHOVEL_RESERVE = 10;
+
+    public String nextMove(HunterView hunter, TownView town) {
+        if (!hunter.hasItemInKit(Item.SWORD) && town.isForSale(Item.SWORD)) {
+            return "b";
+        }
+        if (!town.isSearched()) {
+            return "h";
+        }
+        if (!town.isDug() && hunter.hasItemInKit(Item.SHOVEL)) {
+            return "d";
+        }
+        if (!hunter.hasItemInKit(Item.SHOVEL) && hunter.getGold() >= town.getPrice(Item.SHOVEL, true) + SHOVEL_RESERVE) {
+            return "b";
+        }
+        if (town.getTerrain().canCrossTerrain(hunter)) {
+            return "m";
+        }
+        if (hunter.getGold() >= town.getPrice(town.getTerrain().getNeededItem(), true)) {
+            return "b";
+        }
+        return "l";
+    }
+
+    public Item chooseItem(HunterView hunter, TownView town, boolean isBuying) {
+        if (!isBuying) {
+            return null;
+        }
+        if (!hunter.hasItemInKit(Item.SWORD) && town.isForSale(Item.SWORD)) {
+            return Item.SWORD;
+        }
+        Item neededItem = town.getTerrain().getNeededItem();
+        if (!town.getTerrain().canCrossTerrain(hunter) && hunter.getGold() >= town.getPrice(neededItem, true)) {
+            return neededItem;
+        }
+        return Item.SHOVEL;
+    }
+}
@@ -0,0 +1,374 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Hunter Class<br /><br />
+ * This class represents the treasure hunter character (the player) in the Treasure Hunt game.
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Hunter {
+    // only 3 treasures can be stored
+    static final int TREASURE_CAPACITY = 3;
+    // how many low bits of a long pack() uses
+    static final int PACKED_BITS = 52;
+
+    //instance variables
+    private String hunterName;
+    private int kit; // one bit per Item (see Item.getBit())
+    private int kitCapacity;
+    private int gold;
+    private boolean testMode;
+    private int treasures; // one bit per Treasure (see Treasure.getBit())
+    private boolean samurai;
+    private OutputSink window;
+    private EventLog log = NullEventLog.INSTANCE;
+
+    /**
+     * The base constructor of a Hunter assigns the name to the hunter and an empty kit.
+     *
+     * @param hunterName The hunter's name.
+     * @param startingGold The gold the hunter starts with.
+     */
+    public Hunter(String hunterName, int startingGold, OutputSink win) {
+        this(hunterName, startingGold, 7, win); // only 7 possible items can be stored in kit
+    }
+
+    /**
+     * Similar to the base constructor, but allows a custom inventory capacity to be defined.
+     *
+     * @param hunterName The hunter's name.
+     * @param startingGold The gold the hunter starts with.
+     * @param inventorySpace The max amount of items that the player can hold.
+     */
+    public Hunter(String hunterName, int startingGold, int inventorySpace, OutputSink win) {
+        window = win;
+        this.hunterName = hunterName;
+        kit = 0;
+        kitCapacity = inventorySpace; // only [inventorySpace] possible items can be stored in kit
+        treasures = 0;
+        gold = startingGold;
+    }
+
+
+    /**
+     * Writes the hunter's name, gold, kit and treasures in the save format (see TreasureHunter.save()).
+     *
+     * @param out Where the hunter is written.
+     */
+    public void save(DataOutput out) throws IOException {
+        out.writeUTF(hunterName);
+        out.writeInt(gold);
+        out.writeByte(kitCapacity);
+        out.writeByte(kit);
+        out.writeByte(treasures);
+    }
+
+    /**
+     * Reads back a hunter written by save().
+     *
+     * @param in Where the hunter is read from.
+     * @param win Where the hunter's messages are shown.
+     * @return The restored hunter.
+     */
+    public static Hunter load(DataInput in, OutputSink win) throws IOException {
+        Hunter hunter = new Hunter(in.readUTF(), in.readInt(), in.readUnsignedByte(), win);
+        hunter.kit = in.readUnsignedByte() & Item.ALL;
+        hunter.treasures = in.readUnsignedByte() & ((1 << Treasure.values().length) - 1);
+        return hunter;
+    }
+
+    /**
+     * Packs the hunter's gold, kit, treasures and kit capacity into the low PACKED_BITS bits of a long
+     * (see SessionStore); the name is kept elsewhere.
+     *
+     * @return gold in bits 0-31, the kit in bits 32-39, the treasures in bits 40-43 and the capacity in bits 44-51.
+     */
+    long pack() {
+        return (gold & 0xffffffffL) | (long) kit << 32 | (long) treasures << 40 | (long) (kitCapacity & 0xff) << 44;
+    }
+
+    /**
+     * Rebuilds a hunter packed by pack().
+     *
+     * @param bits The packed hunter; bits above PACKED_BITS are ignored.
+     * @param hunterName The hunter's name.
+     * @param win Where the hunter's messages are shown.
+     * @return The unpacked hunter.
+     */
+    static Hunter unpack(long bits, String hunterName, OutputSink win) {
+        Hunter hunter = new Hunter(hunterName, (int) bits, (int) (bits >>> 44) & 0xff, win);
+        hunter.kit = (int) (bits >>> 32) & Item.ALL;
+        hunter.treasures = (int) (bits >>> 40) & ((1 << Treasure.values().length) - 1);
+        return hunter;
+    }
+
+    //Accessors
+
+    public int getGold(){return gold;}
+
+    /**
+     * @return the kit as a bitmask with one bit per Item.
+     */
+    public int getKit(){return kit;}
+
+    /**
+     * @return the collected treasures as a bitmask with one bit per Treasure.
+     */
+    public int getTreasures(){return treasures;}
+
+    public int getKitCapacity(){return kitCapacity;}
+
+    /**
+     * Sends every change to the hunter's gold, kit and treasures from now on to the given log.
+     *
+     * @param log Where the hunter's events go.
+     */
+    public void setEventLog(EventLog log) {
+        this.log = log;
+    }
+
+    public void setTestMode(boolean test){
+        log.record(GameEvent.TEST_MODE, 0, 0);
+        gold = 100;
+        kit = Item.ALL & ~Item.SWORD.getBit(); // everything but the sword
+        kitCapacity = Math.max(kitCapacity, Integer.bitCount(kit));
+    }
+
+    public String getHunterName() {
+        return hunterName;
+    }
+
+    /**
+     * Updates the amount of gold the hunter has.
+     *
+     * @param modifier Amount to modify gold by.
+     */
+    public void changeGold(int modifier) {
+        log.record(GameEvent.GOLD_CHANGED, 0, modifier);
+        gold += modifier;
+        if (gold < 0) {
+            gold = 0;
+        }
+    }
+
+    /**
+     * Buys an item from a shop.
+     *
+     * @param item The item the hunter is buying.
+     * @param costOfItem The cost of the item.
+     * @return true if the item is successfully bought.
+     */
+    public boolean buyItem(String item, int costOfItem) {
+        Item found = Item.fromName(item);
+        return found != null && buyItem(found, costOfItem);
+    }
+
+    /**
+     * Buys an item from a shop.
+     *
+     * @param item The item the hunter is buying.
+     * @param costOfItem The cost of the item.
+     * @return true if the item is successfully bought.
+     */
+    public boolean buyItem(Item item, int costOfItem) {
+        if (hasItemInKit(Item.SWORD)) {
+            costOfItem = 0;
+        }
+        if (costOfItem < 0 || gold < costOfItem || hasItemInKit(item) || kitIsFull()) {
+            return false;
+        }
+        gold -= costOfItem;
+        addItem(item);
+        log.record(GameEvent.ITEM_BOUGHT, item.ordinal(), costOfItem);
+        return true;
+    }
+
+    /**
+     * The Hunter is selling an item to a shop for gold.<p>
+     * This method checks to make sure that the seller has the item and that the seller is getting more than 0 gold.
+     *
+     * @param item The item being sold.
+     * @param buyBackPrice the amount of gold earned from selling the item
+     * @return true if the item was successfully sold.
+     */
+    public boolean sellItem(String item, int buyBackPrice) {
+        Item found = Item.fromName(item);
+        return found != null && sellItem(found, buyBackPrice);
+    }
+
+    /**
+     * The Hunter is selling an item to a shop for gold.
+     *
+     * @param item The item being sold.
+     * @param buyBackPrice the amount of gold earned from selling the item
+     * @return true if the item was successfully sold.
+     */
+    public boolean sellItem(Item item, int buyBackPrice) {
+        if (buyBackPrice <= 0 || !hasItemInKit(item)) {
+            return false;
+        }
+        gold += buyBackPrice;
+        removeItemFromKit(item);
+        log.record(GameEvent.ITEM_SOLD, item.ordinal(), buyBackPrice);
+        return true;
+    }
+
+    /**
+     * Removes an item from the kit.
+     *
+     * @param item The item to be removed.
+     */
+    public void removeItemFromKit(String item) {
+        Item found = Item.fromName(item);
+        if (found != null) {
+            removeItemFromKit(found);
+        }
+    }
+
+    /**
+     * Removes an item from the kit by clearing its bit.
+     *
+     * @param item The item to be removed.
+     */
+    public void removeItemFromKit(Item item) {
+        kit &= ~item.getBit();
+    }
+
+    /**
+     * Checks to make sure that the item is not already in the kit and that there is room for it.
+     * If so, it sets the item's bit in the kit.
+     *
+     * @param item The item to be added to the kit.
+     * @return true if the item is not in the kit and has been added.
+     */
+    private boolean addItem(Item item) {
+        if (!hasItemInKit(item) && !kitIsFull()) {
+            kit |= item.getBit();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the kit has the specified item.
+     *
+     * @param item The (lower case) name of the search item
+     * @return true if the item is found.
+     */
+    public boolean hasItemInKit(String item) {
+        Item found = Item.fromName(item);
+        return found != null && hasItemInKit(found);
+    }
+
+    /**
+     * Checks if the kit has the specified item.
+     *
+     * @param item The search item
+     * @return true if the item is found.
+     */
+    public boolean hasItemInKit(Item item) {
+        return (kit & item.getBit()) != 0;
+    }
+
+     /**
+     * Returns a printable representation of the inventory, which
+     * is a list of the items in kit, with a space between each item.
+     *
+     * @return The printable String representation of the inventory.
+     */
+    public void getInventory() {
+        if (!window.isEnabled()) {
+            return;
+        }
+        String space = " ";
+
+        for (Item item : Item.values()) {
+            if (hasItemInKit(item)) {
+                window.addTextToWindow(item + space,Colors.purple);
+            }
+        }
+    }
+    /**
+     * Adds treasure to the treasures if there is room for one more and it is not already there
+     *
+     * @param treasure treasure to be added
+     * @return 0 if treasure was added, 1 if treasure is already in treasures, 2 if there is not enough space in treasures
+     * */
+    public int addTreasure(Treasure treasure) {
+        if ((treasures & treasure.getBit()) != 0) {
+            return 1; //treasure is already in treasures
+        }
+        if (treasuresFull()) {
+            return 2;
+        }
+        treasures |= treasure.getBit();
+        log.record(GameEvent.TREASURE_FOUND, treasure.ordinal(), 0);
+        return 0;
+    }
+
+    /**
+     * @return A string representation of the hunter.
+     */
+    public void infoString() {
+        if (!window.isEnabled()) {
+            return;
+        }
+        window.addTextToWindow(hunterName + " has ",Colors.cyan);window.addTextToWindow(gold + " gold",Colors.yellow);
+        if (!kitIsEmpty()) {
+            window.addTextToWindow(" and ");
+            getInventory();
+        }
+        window.addTextToWindow("\n" + printCollectedTreasures());
+    }
+    /**
+     * @return A string representing the player's collectd treasures
+     * */
+    private String printCollectedTreasures() {
+        String ret = "Treasures found: ";
+        if (treasuresIsEmpty()) {
+            ret += "none";
+        } else {
+            for (Treasure treasure : Treasure.values()) {
+                if ((treasures & treasure.getBit()) != 0) {
+                    ret += "a " + treasure + " ";
+                }
+            }
+        }
+        return ret;
+    }
+    /**
+     * Used to check for the win condition.
+     * @return true if there is no room for another treasure.
+     * */
+    public boolean treasuresFull() {
+        return Integer.bitCount(treasures) >= TREASURE_CAPACITY;
+    }
+
+    /**
+     * Check if the kit is empty - meaning no item bits are set.
+     *
+     * @return true if kit is completely empty.
+     */
+    private boolean kitIsEmpty() {
+        return kit == 0;
+    }
+
+    /**
+     * @return true if the kit holds as many items as it can.
+     */
+    private boolean kitIsFull() {
+        return Integer.bitCount(kit) >= kitCapacity;
+    }
+
+    /**
+     * Check if the treasures are empty.
+     *
+     * @return true if no treasure bits are set*/
+    private boolean treasuresIsEmpty() {
+        return treasures == 0;
+    }
+}
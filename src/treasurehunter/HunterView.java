@@ -0,0 +1,33 @@
+package treasurehunter;
+
+/**
+ * A HunterView is what an automated player (see Policy) can see of the hunter: everything about them,
+ * and nothing that changes them. The Simulation hands policies a view that only passes these calls on
+ * to the hunter, so a policy can't cast it back to a Hunter.
+ */
+
+public interface HunterView {
+
+    String getHunterName();
+
+    int getGold();
+
+    /**
+     * @return the kit as a bitmask with one bit per Item.
+     */
+    int getKit();
+
+    /**
+     * @return the collected treasures as a bitmask with one bit per Treasure.
+     */
+    int getTreasures();
+
+    int getKitCapacity();
+
+    boolean hasItemInKit(Item item);
+
+    /**
+     * @return true if there is no room for another treasure, which wins the game.
+     */
+    boolean treasuresFull();
+}
@@ -0,0 +1,32 @@
+package treasurehunter;
+
+/**
+ * An InputSource is where the game reads the player's typing from: the console, a prepared script,
+ * or a queue filled in by another thread.<p>
+ * One game reads everything (menu choices, names and shop answers) from the same source, so no line
+ * can end up in the wrong reader's buffer.
+ */
+
+public interface InputSource {
+
+    /**
+     * Reads the next line of input, waiting for one if necessary.
+     *
+     * @return The line without its line ending, or null if there is no more input.
+     */
+    String nextLine();
+
+    /**
+     * Reads the next line of input in lower case.
+     *
+     * @param fallback What to return if there is no more input.
+     * @return The line in lower case, or the fallback.
+     */
+    default String nextLowerCase(String fallback) {
+        String line = nextLine();
+        if (line == null) {
+            return fallback;
+        }
+        return line.toLowerCase();
+    }
+}
@@ -0,0 +1,72 @@
+package treasurehunter;
+
+/**
+ * The Item enum lists everything a hunter can carry in their kit.<p>
+ * Each item owns one bit, so a whole kit fits in a single int (see Hunter).
+ */
+
+public enum Item {
+    WATER("water"),
+    ROPE("rope"),
+    MACHETE("machete"),
+    SHOVEL("shovel"),
+    HORSE("horse"),
+    BOOTS("boots"),
+    BOAT("boat"),
+    SWORD("sword");
+
+    // a kit holding every item
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final String name;
+    private final int bit;
+
+    Item(String name) {
+        this.name = name;
+        bit = 1 << ordinal();
+    }
+
+    /**
+     * Finds the item with the given name.
+     *
+     * @param name The (lower case) name of the item.
+     * @return The item, or null if there is no such item.
+     */
+    public static Item fromName(String name) {
+        switch (name) {
+            case "water": return WATER;
+            case "rope": return ROPE;
+            case "machete": return MACHETE;
+            case "shovel": return SHOVEL;
+            case "horse": return HORSE;
+            case "boots": return BOOTS;
+            case "boat": return BOAT;
+            case "sword": return SWORD;
+            default: return null;
+        }
+    }
+
+    /**
+     * @return the lower case name players type to pick the item, which is also how it is shown.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * @return true if the item breaks when it wears out, rather than being lost. The game always meant rope,
+     * machete and boat to break, but used to check for them by their capitalized names against the lower case
+     * ones in the kit, so it said every item was lost.
+     */
+    public boolean isBreakable() {
+        return this == ROPE || this == MACHETE || this == BOAT;
+    }
+
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,175 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The JournalReplayer rebuilds a game's Hunter and Town from an EventJournal, without playing the game or showing
+ * anything: every event is applied straight to the state it changed.<p>
+ * Nothing is rolled, so the replayed game ends up exactly where the journaled one was. The hunter's name isn't
+ * journaled, so the replayed hunter has none. If the journal holds several games, the last one is kept.
+ */
+
+public class JournalReplayer {
+    // how much of the journal is mapped at once; a whole number of records
+    private static final long WINDOW = (1L << 30) / EventJournal.RECORD_SIZE * EventJournal.RECORD_SIZE;
+
+    // instance variables
+    private GameMode mode;
+    private Shop shop;
+    private Hunter hunter;
+    private Town town;
+    private long events;
+    private long commands;
+    private long games;
+
+    private JournalReplayer() {
+    }
+
+    /**
+     * Replays a journal from the start.
+     *
+     * @param file The journal file.
+     * @return The replayer, holding the state the journal ends in.
+     */
+    public static JournalReplayer replay(Path file) throws IOException {
+        JournalReplayer replayer = new JournalReplayer();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            EventJournal.checkHeader(channel);
+            long size = channel.size();
+            for (long position = EventJournal.HEADER_SIZE; position < size; position += WINDOW) {
+                long length = Math.min(size - position, WINDOW);
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                for (int offset = 0; offset + EventJournal.RECORD_SIZE <= length; offset += EventJournal.RECORD_SIZE) {
+                    int code = records.get(offset) & 0xff;
+                    if (code == 0) {
+                        return replayer; // the end of the journal
+                    }
+                    GameEvent event = GameEvent.fromCode(code);
+                    if (event == null) {
+                        throw new IOException("Unknown event " + code + " at record " + replayer.events);
+                    }
+                    replayer.apply(event, records.getShort(offset + 2) & 0xffff, records.getInt(offset + 4));
+                }
+            }
+        }
+        return replayer;
+    }
+
+    /**
+     * Applies one event to the replayed state.
+     */
+    private void apply(GameEvent event, int subject, int value) throws IOException {
+        events++;
+        if (event == GameEvent.GAME_STARTED) {
+            mode = valueOf(GameMode.values(), subject >> 8);
+            shop = new Shop(mode.getPrices(), NullOutputSink.INSTANCE);
+            hunter = new Hunter("", value, subject & 0xff, NullOutputSink.INSTANCE);
+            town = null;
+            games++;
+            return;
+        }
+        if (hunter == null) {
+            throw new IOException("Event " + event + " before any game started");
+        }
+        switch (event) {
+            case TEST_MODE:
+                hunter.setTestMode(true);
+                break;
+            case COMMAND:
+                commands++;
+                break;
+            case TOWN_ENTERED:
+                if (Town.terrainIndex(valueOf(Item.values(), subject)) < 0) {
+                    throw new IOException("No terrain needs " + Item.values()[subject] + " at record " + events);
+                }
+                valueOf(Treasure.values(), value & 0xff);
+                town = new Town(shop, subject, value, hunter, mode.isEasy());
+                break;
+            case TOWN_SEARCHED:
+            case TOWN_DUG:
+            case HUNTER_BROKE:
+                if (town == null) {
+                    throw new IOException("Event " + event + " outside any town");
+                }
+                town.replay(event);
+                break;
+            case GOLD_CHANGED:
+                hunter.changeGold(value);
+                break;
+            case ITEM_BOUGHT:
+                hunter.buyItem(valueOf(Item.values(), subject), value);
+                break;
+            case ITEM_SOLD:
+                hunter.sellItem(valueOf(Item.values(), subject), value);
+                break;
+            case ITEM_BROKEN:
+                hunter.removeItemFromKit(valueOf(Item.values(), subject));
+                break;
+            case TREASURE_FOUND:
+                hunter.addTreasure(valueOf(Treasure.values(), subject));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static <T> T valueOf(T[] values, int ordinal) throws IOException {
+        if (ordinal >= values.length) {
+            throw new IOException("Unknown value " + ordinal + " in journal");
+        }
+        return values[ordinal];
+    }
+
+    // accessors
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    public Town getTown() {
+        return town;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Replays a journal and prints the state it ends in.<p>
+     * Arguments: the journal file.
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        JournalReplayer replayer = replay(Paths.get(args[0]));
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Replayed %,d events (%,d games, %,d commands) in %.1f ms, %,.0f events/s%n",
+                replayer.events, replayer.games, replayer.commands, elapsed / 1e6, replayer.events / (elapsed / 1e9));
+        Hunter hunter = replayer.hunter;
+        if (hunter != null) {
+            System.out.println("Mode: " + replayer.mode + ", gold: " + hunter.getGold()
+                    + ", kit: " + Integer.toBinaryString(hunter.getKit())
+                    + ", treasures: " + Integer.toBinaryString(hunter.getTreasures()));
+        }
+        Town town = replayer.town;
+        if (town != null) {
+            System.out.println("Town: " + town.getTerrain().getTerrainName() + ", searched: " + town.isSearched()
+                    + ", dug: " + town.isDug() + ", hunter broke: " + town.isHunterBroke());
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package treasurehunter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The Leaderboard keeps every finished game in a file and can list the best of them straight away,
+ * however many games it holds.<p>
+ * The file is a header holding the top-K index, then fixed-width 64 byte records, one per game:
+ * <pre>
+ *   0  long   rank (see GameResult.getRank()); 0 means the record isn't written yet
+ *   8  long   when the game ended, in milliseconds since the epoch
+ *  16  int    gold
+ *  20  int    turns
+ *  24  byte   mode
+ *  25  byte   outcome
+ *  26  byte   length of the name in bytes
+ *  27         the name in UTF-8, cut short after 37 bytes
+ * </pre>
+ * Records are written straight into memory-mapped chunks of the file. Any number of sessions can add games at once:
+ * each claims its record with one atomic add on the count in the header, then writes it with the rank last,
+ * so a record cut short by a crash reads as never written.<p>
+ * The index holds the rank and record number of the best K games, best first, and is kept up to date in the header.
+ * Once the index is full, a game that doesn't beat the worst game in it (nearly every game) is turned away by
+ * one volatile read without taking the lock, and listing the top 100 reads just those 100 records, however many
+ * games there are. close() notes how many records the index covers; if the program stopped without closing,
+ * opening the file ranks the records after that again.<p>
+ * A leaderboard file should only be open in one program at a time.
+ */
+
+public class Leaderboard implements Closeable {
+    public static final int RECORD_SIZE = 64;
+    public static final int DEFAULT_CAPACITY = 1000;
+    private static final int MAGIC = 0x54484c42; // "THLB"
+    private static final int VERSION = 1;
+    private static final int MAX_NAME_BYTES = RECORD_SIZE - 27;
+    private static final int RECORDS_PER_CHUNK = 1 << 20; // 64 MB at a time
+    private static final int MAX_CHUNKS = 1 << 12;
+    // where things are in the header; the index starts at INDEX_OFFSET with 16 bytes per game
+    private static final int COUNT_OFFSET = 16;
+    private static final int INDEXED_OFFSET = 24;
+    private static final int INDEX_SIZE_OFFSET = 32;
+    private static final int INDEX_OFFSET = 64;
+    private static final int PAGE_SIZE = 4096;
+    // atomic access to the longs of a mapped file
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // instance variables
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private long firstRecordOffset;
+    private AtomicReferenceArray<MappedByteBuffer> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private int capacity;
+    private long[] topRanks; // best first, only used while holding the lock
+    private long[] topRecords;
+    private int topSize;
+    private volatile long cutoff; // the rank a game has to beat to get into the index
+
+    /**
+     * Opens a leaderboard that ranks the best DEFAULT_CAPACITY games, creating it if it doesn't exist yet.
+     *
+     * @param file The leaderboard file.
+     */
+    public Leaderboard(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens a leaderboard, creating it if it doesn't exist yet.
+     *
+     * @param file The leaderboard file.
+     * @param capacity How many of the best games a new file keeps in its index; an existing file keeps its own.
+     */
+    public Leaderboard(Path file, int capacity) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("A leaderboard has to rank at least one game: " + capacity);
+            }
+            ByteBuffer start = ByteBuffer.allocate(INDEX_OFFSET);
+            start.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(capacity).flip();
+            channel.write(start, 0);
+        } else {
+            capacity = checkHeader(channel);
+        }
+        this.capacity = capacity;
+        long indexEnd = INDEX_OFFSET + (long) capacity * 16;
+        firstRecordOffset = (indexEnd + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, firstRecordOffset);
+        topRanks = new long[capacity];
+        topRecords = new long[capacity];
+        topSize = header.getInt(INDEX_SIZE_OFFSET);
+        for (int i = 0; i < topSize; i++) {
+            topRanks[i] = header.getLong(INDEX_OFFSET + i * 16);
+            topRecords[i] = header.getLong(INDEX_OFFSET + i * 16 + 8);
+        }
+        long indexed = header.getLong(INDEXED_OFFSET);
+        long count = header.getLong(COUNT_OFFSET);
+        if (indexed < count) {
+            reindex(indexed, count);
+        }
+        updateCutoff();
+    }
+
+    /**
+     * Makes sure a file is a leaderboard this version can read.
+     *
+     * @param channel The open leaderboard file.
+     * @return how many games the file's index ranks.
+     */
+    static int checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(16);
+        channel.read(start, 0);
+        start.flip();
+        if (start.remaining() < 16 || start.getInt() != MAGIC) {
+            throw new IOException("Not a leaderboard");
+        }
+        int version = start.getInt();
+        if (version != VERSION || start.getInt() != RECORD_SIZE) {
+            throw new IOException("Unsupported leaderboard version " + version);
+        }
+        return start.getInt();
+    }
+
+    /**
+     * Ranks the records the index doesn't cover yet, after a program that had the file open stopped without closing it.
+     */
+    private synchronized void reindex(long from, long to) {
+        int kept = 0;
+        for (int i = 0; i < topSize; i++) {
+            if (topRecords[i] < from) { // anything later is about to be ranked again
+                topRanks[kept] = topRanks[i];
+                topRecords[kept] = topRecords[i];
+                kept++;
+            }
+        }
+        topSize = kept;
+        updateCutoff();
+        for (long record = from; record < to; record++) {
+            long rank = chunkFor(record).getLong(offsetOf(record));
+            if (rank > cutoff) {
+                offer(rank, record);
+            }
+        }
+        writeIndex(0);
+        header.putLong(INDEXED_OFFSET, to);
+    }
+
+    /**
+     * Records a finished game. Safe to call from any number of threads at once.
+     *
+     * @param result How the game turned out.
+     * @return The game's record number.
+     */
+    public long add(GameResult result) {
+        long record = (long) LONGS.getAndAdd(header, COUNT_OFFSET, 1L);
+        MappedByteBuffer chunk = chunkFor(record);
+        int offset = offsetOf(record);
+        ByteBuffer name = encodeName(result.getName());
+        chunk.putLong(offset + 8, result.getMillis());
+        chunk.putInt(offset + 16, result.getGold());
+        chunk.putInt(offset + 20, result.getTurns());
+        chunk.put(offset + 24, (byte) result.getMode().ordinal());
+        chunk.put(offset + 25, (byte) result.getOutcome().ordinal());
+        chunk.put(offset + 26, (byte) name.remaining());
+        chunk.put(offset + 27, name, 0, name.remaining());
+        long rank = result.getRank();
+        LONGS.setRelease(chunk, offset, rank); // last, so the record only counts once it is whole
+        if (rank > cutoff) {
+            offer(rank, record);
+        }
+        return record;
+    }
+
+    /**
+     * @return the name in UTF-8, cut short at a whole character if it doesn't fit in a record.
+     */
+    private static ByteBuffer encodeName(String name) {
+        ByteBuffer bytes = ByteBuffer.allocate(MAX_NAME_BYTES);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        encoder.encode(CharBuffer.wrap(name), bytes, true); // stops before a character that doesn't fit
+        return bytes.flip();
+    }
+
+    /**
+     * Puts a game into the index if it is good enough, ahead of every game it beats
+     * and behind any it only ties with.
+     */
+    private synchronized void offer(long rank, long record) {
+        if (topSize == capacity && rank <= topRanks[capacity - 1]) {
+            return; // another game got in first and raised the bar
+        }
+        int low = 0;
+        int high = topSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (topRanks[mid] >= rank) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int moved = Math.min(topSize, capacity - 1) - low; // the last game falls off a full index
+        System.arraycopy(topRanks, low, topRanks, low + 1, moved);
+        System.arraycopy(topRecords, low, topRecords, low + 1, moved);
+        topRanks[low] = rank;
+        topRecords[low] = record;
+        topSize = low + moved + 1;
+        writeIndex(low);
+        updateCutoff();
+    }
+
+    /**
+     * Copies the index from the given place on into the header.
+     */
+    private void writeIndex(int from) {
+        for (int i = from; i < topSize; i++) {
+            header.putLong(INDEX_OFFSET + i * 16, topRanks[i]);
+            header.putLong(INDEX_OFFSET + i * 16 + 8, topRecords[i]);
+        }
+        header.putInt(INDEX_SIZE_OFFSET, topSize);
+    }
+
+    private void updateCutoff() {
+        cutoff = topSize == capacity ? topRanks[capacity - 1] : 0;
+    }
+
+    /**
+     * Lists the best games recorded so far.
+     *
+     * @param n How many games to list; no more than the index ranks are ever listed.
+     * @return The best games, best first.
+     */
+    public List<GameResult> top(int n) {
+        long[] records;
+        synchronized (this) {
+            records = Arrays.copyOf(topRecords, Math.max(0, Math.min(n, topSize)));
+        }
+        List<GameResult> results = new ArrayList<>(records.length);
+        for (long record : records) {
+            results.add(read(record));
+        }
+        return results;
+    }
+
+    /**
+     * Reads back a game recorded by add().
+     *
+     * @param record The game's record number.
+     * @return The game, or null if its record hasn't been written.
+     */
+    public GameResult read(long record) {
+        if (record < 0 || record >= getGameCount()) {
+            throw new IndexOutOfBoundsException("No game " + record + " in a leaderboard of " + getGameCount());
+        }
+        MappedByteBuffer chunk = chunkFor(record);
+        int offset = offsetOf(record);
+        if ((long) LONGS.getAcquire(chunk, offset) == 0) {
+            return null;
+        }
+        byte[] name = new byte[chunk.get(offset + 26)];
+        chunk.get(offset + 27, name);
+        return new GameResult(new String(name, StandardCharsets.UTF_8), GameMode.values()[chunk.get(offset + 24)],
+                GameResult.Outcome.values()[chunk.get(offset + 25)], chunk.getInt(offset + 16),
+                chunk.getInt(offset + 20), chunk.getLong(offset + 8));
+    }
+
+    private static int offsetOf(long record) {
+        return (int) (record % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+
+    /**
+     * @return the chunk of the file that holds the given record, mapping it (and growing the file) the first time.
+     */
+    private MappedByteBuffer chunkFor(long record) {
+        long index = record / RECORDS_PER_CHUNK;
+        if (index >= MAX_CHUNKS) {
+            throw new IllegalStateException("The leaderboard is full");
+        }
+        MappedByteBuffer chunk = chunks.get((int) index);
+        if (chunk == null) {
+            synchronized (chunks) {
+                chunk = chunks.get((int) index);
+                if (chunk == null) {
+                    try {
+                        chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                                firstRecordOffset + index * RECORDS_PER_CHUNK * RECORD_SIZE,
+                                (long) RECORDS_PER_CHUNK * RECORD_SIZE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    chunks.set((int) index, chunk);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    // accessors
+    public long getGameCount() {
+        return (long) LONGS.getVolatile(header, COUNT_OFFSET);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Makes sure every game recorded so far is on disk, not just in the page cache.
+     */
+    public void force() {
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            MappedByteBuffer chunk = chunks.get(i);
+            if (chunk != null) {
+                chunk.force();
+            }
+        }
+        header.force();
+    }
+
+    /**
+     * Notes that the index covers every game and closes the file. Nothing may be added once this has been called.
+     */
+    public void close() throws IOException {
+        synchronized (this) {
+            header.putLong(INDEXED_OFFSET, getGameCount());
+        }
+        force();
+        channel.close();
+    }
+
+    /**
+     * Prints the best games in a leaderboard.<p>
+     * Arguments: the leaderboard file, then optionally how many games to list (default 10).
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args[0]);
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        try (Leaderboard board = new Leaderboard(file)) {
+            long start = System.nanoTime();
+            List<GameResult> best = board.top(n);
+            long nanos = System.nanoTime() - start;
+            for (int i = 0; i < best.size(); i++) {
+                System.out.println((i + 1) + ". " + best.get(i));
+            }
+            System.out.printf("Top %d of %,d games in %.1f us%n", best.size(), board.getGameCount(), nanos / 1e3);
+        }
+    }
+}
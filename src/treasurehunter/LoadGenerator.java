@@ -0,0 +1,193 @@
+package treasurehunter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The LoadGenerator plays many games against a GameServer at once to see how many sessions it can hold
+ * and how long players wait for each turn.<p>
+ * Every simulated player connects, waits until everyone else has connected, then plays a fixed number of turns
+ * from the menu, pausing between turns like a person would. A player whose game ends early starts another one.
+ * A turn's latency is the time from sending a line to seeing the next GameServer.PROMPT.
+ */
+
+public class LoadGenerator {
+    // the menu choices the players pick from; buying and selling are left out as they ask follow-up questions
+    private static final String[] MOVES = {"e", "m", "l", "h", "d"};
+
+    // instance variables
+    private int port;
+    private int players;
+    private int turns;
+    private int thinkMillis;
+    private long seed;
+    private AtomicInteger connected = new AtomicInteger();
+    private AtomicInteger failed = new AtomicInteger();
+    private AtomicInteger gamesPlayed = new AtomicInteger();
+
+    /**
+     * @param port The port the server is listening on, on the loopback address.
+     * @param players How many players play at once.
+     * @param turns How many turns each player plays.
+     * @param thinkMillis How long each player pauses between turns.
+     * @param seed The seed every player's moves are drawn from.
+     */
+    public LoadGenerator(int port, int players, int turns, int thinkMillis, long seed) {
+        this.port = port;
+        this.players = players;
+        this.turns = turns;
+        this.thinkMillis = thinkMillis;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every player's turns and prints what was measured.
+     */
+    public void run() throws InterruptedException {
+        long[][] latencies = new long[players][];
+        CountDownLatch allConnected = new CountDownLatch(players);
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < players; i++) {
+                int player = i;
+                SplittableRandom moves = random.split();
+                clients.submit(() -> latencies[player] = play(moves, allConnected));
+            }
+        } // waits for every player to finish
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.println("Players:     " + players + " (" + connected.get() + " connected, " + failed.get() + " dropped)");
+        System.out.println("Games:       " + gamesPlayed.get());
+        System.out.println("Turns:       " + all.length + " in " + elapsed / 1_000_000 + " ms, "
+                + (long) (all.length / (elapsed / 1e9)) + " turns/s");
+        if (all.length > 0) {
+            System.out.printf("Turn latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Plays one player's turns, starting a new game whenever one ends.
+     *
+     * @return The latency of every turn played, in nanoseconds.
+     */
+    private long[] play(SplittableRandom moves, CountDownLatch allConnected) {
+        long[] latencies = new long[turns];
+        int played = 0;
+        boolean first = true;
+        try {
+            while (played < turns) {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                    if (first) {
+                        first = false;
+                        connected.incrementAndGet();
+                        allConnected.countDown();
+                        allConnected.await();
+                    }
+                    gamesPlayed.incrementAndGet();
+                    boolean going = awaitPrompt(in) && send(out, in, "player") >= 0 && send(out, in, "n") >= 0;
+                    while (going && played < turns) {
+                        Thread.sleep(thinkMillis);
+                        long latency = send(out, in, MOVES[moves.nextInt(MOVES.length)]);
+                        if (latency < 0) {
+                            going = false; // the game is over
+                        } else {
+                            latencies[played++] = latency;
+                        }
+                    }
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            failed.incrementAndGet();
+        } finally {
+            if (first) {
+                allConnected.countDown(); // never connected, but don't keep everyone else waiting
+            }
+        }
+        return Arrays.copyOf(latencies, played);
+    }
+
+    /**
+     * Sends a line and waits for the server to ask for the next one.
+     *
+     * @return How long the server took, in nanoseconds, or -1 if the server hung up instead.
+     */
+    private static long send(Writer out, BufferedReader in, String line) throws IOException {
+        long start = System.nanoTime();
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        if (!awaitPrompt(in)) {
+            return -1;
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Reads and throws away the server's text up to and including the next prompt.
+     *
+     * @return false if the server hung up first.
+     */
+    private static boolean awaitPrompt(BufferedReader in) throws IOException {
+        String prompt = GameServer.PROMPT;
+        int matched = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == prompt.charAt(matched)) {
+                matched++;
+                if (matched == prompt.length()) {
+                    return true;
+                }
+            } else {
+                matched = c == prompt.charAt(0) ? 1 : 0;
+            }
+        }
+        return false;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    /**
+     * Runs the load against a server already listening on the given port, or against one started in this program if the port is 0.<p>
+     * Arguments, all optional: players (default 1000), turns per player (default 50), think time in ms (default 100), port, seed.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int thinkMillis = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        GameServer server = null;
+        if (port == 0) {
+            server = new GameServer(0, seed);
+            port = server.getPort();
+            Thread.ofPlatform().daemon().name("game-server").start(server::serve);
+        }
+        new LoadGenerator(port, players, turns, thinkMillis, seed).run();
+        if (server != null) {
+            System.out.println("Server:      peak " + server.getPeakSessions() + " sessions at once, "
+                    + server.getFinishedSessions() + " finished");
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package treasurehunter;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Market moves shop prices with supply and demand: items everyone is buying get dearer,
+ * and items everyone is selling get cheaper, both to buy and to sell back.<p>
+ * Every trade in every shop that shares the market (e.g. every GameServer session) is counted in a LongAdder,
+ * so thousands of shoppers can trade at once without waiting on each other. Every tick, one thread takes the
+ * counts, adds them to a running volume that loses a share of itself each tick so old trades fade away,
+ * and works out a price factor per item from how lopsided buying and selling have been lately:
+ * <pre>
+ *   factor = 1 + SENSITIVITY * (bought - sold) / (bought + sold + DEPTH)
+ * </pre>
+ * which stays between 1 - SENSITIVITY and 1 + SENSITIVITY, and near 1 until enough has been traded.
+ * The factors are published as a new array in a volatile field, so reading a price is one volatile read and
+ * an array index, which never waits on anything.
+ */
+
+public class Market implements Closeable {
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+    // how much of the recent volume is kept each tick; about 6.6 ticks to halve
+    private static final double DECAY = 0.9;
+    private static final double SENSITIVITY = 0.5;
+    // how many (decayed) trades it takes before prices move much
+    private static final double DEPTH = 50;
+    // factors are kept in thousandths so prices are worked out in whole numbers
+    private static final int ONE = 1000;
+
+    // instance variables
+    private LongAdder[] bought = new LongAdder[Item.values().length];
+    private LongAdder[] sold = new LongAdder[Item.values().length];
+    private double[] recentBought = new double[Item.values().length]; // only used by tick()
+    private double[] recentSold = new double[Item.values().length];
+    private volatile int[] factors;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Builds a market where every price starts where the catalog puts it. Nothing changes until tick() is called,
+     * e.g. by start().
+     */
+    public Market() {
+        for (int i = 0; i < bought.length; i++) {
+            bought[i] = new LongAdder();
+            sold[i] = new LongAdder();
+        }
+        int[] even = new int[Item.values().length];
+        Arrays.fill(even, ONE);
+        factors = even;
+    }
+
+    /**
+     * Starts ticking on a thread of the market's own, until close() is called.
+     *
+     * @param tickMillis How often prices are worked out again.
+     * @return this, for chaining.
+     */
+    public Market start(long tickMillis) {
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "market");
+            thread.setDaemon(true); // never keeps the program running
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public void recordPurchase(Item item) {
+        bought[item.ordinal()].increment();
+    }
+
+    public void recordSale(Item item) {
+        sold[item.ordinal()].increment();
+    }
+
+    /**
+     * Folds the trades since the last tick into the recent volume and publishes new prices.
+     * Only one thread may tick at a time.
+     */
+    public void tick() {
+        int[] next = new int[factors.length];
+        for (int i = 0; i < next.length; i++) {
+            recentBought[i] = recentBought[i] * DECAY + bought[i].sumThenReset();
+            recentSold[i] = recentSold[i] * DECAY + sold[i].sumThenReset();
+            double imbalance = (recentBought[i] - recentSold[i]) / (recentBought[i] + recentSold[i] + DEPTH);
+            next[i] = (int) Math.round(ONE * (1 + SENSITIVITY * imbalance));
+        }
+        factors = next;
+    }
+
+    /**
+     * Moves a catalog price with the market.
+     *
+     * @param item The item being priced.
+     * @param price The catalog's price for the item.
+     * @return The market price: never less than 1 gold for something that costs anything,
+     * and free or unsold items stay as they are.
+     */
+    public int adjust(Item item, int price) {
+        if (price <= 0) {
+            return price; // the sword is free, and NOT_SOLD has to stay NOT_SOLD
+        }
+        return Math.max(1, (price * factors[item.ordinal()] + ONE / 2) / ONE);
+    }
+
+    /**
+     * @return how far the item's price is from the catalog's, e.g. 1.2 for 20% dearer.
+     */
+    public double getFactor(Item item) {
+        return factors[item.ordinal()] / (double) ONE;
+    }
+
+    /**
+     * Stops ticking, if start() was called; prices stay where they are.
+     */
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package treasurehunter;
+
+import java.awt.Color;
+
+/**
+ * The NullOutputSink throws all text away. It is used wherever a game runs with nobody watching,
+ * such as the headless simulation.
+ */
+
+public class NullOutputSink implements OutputSink {
+    // the sink has no state, so one is enough for every game
+    public static final NullOutputSink INSTANCE = new NullOutputSink();
+
+    private NullOutputSink() {
+    }
+
+    public void addTextToWindow(String text, Color color) {
+    }
+
+    public void addTextToWindow(String text) {
+    }
+
+    public void clear() {
+    }
+
+    public boolean isEnabled() {
+        return false;
+    }
+}
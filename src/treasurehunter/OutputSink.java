@@ -0,0 +1,46 @@
+package treasurehunter;
+
+import java.awt.Color;
+
+/**
+ * An OutputSink is anywhere the game's text can go: the Swing OutputWindow, nowhere at all (NullOutputSink),
+ * a network connection (TextOutputSink), or a tally of what would have been shown (CountingOutputSink).<p>
+ * Text that has to be built (e.g. by joining a name or an amount of gold into a message) should only be
+ * built when isEnabled() is true, so that a disabled sink costs nothing but the check.
+ */
+
+public interface OutputSink {
+
+    /**
+     * Adds some text in the given color.
+     *
+     * @param text The text to add.
+     * @param color The color to show it in.
+     */
+    void addTextToWindow(String text, Color color);
+
+    /**
+     * Adds some text in the default color.
+     *
+     * @param text The text to add.
+     */
+    void addTextToWindow(String text);
+
+    /**
+     * Clears everything shown so far.
+     */
+    void clear();
+
+    /**
+     * Sends on anything still held back, e.g. before the game waits for the player to type.
+     */
+    default void flush() {
+    }
+
+    /**
+     * @return false if text sent here is thrown away, in which case callers may skip building it.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
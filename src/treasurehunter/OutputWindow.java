@@ -0,0 +1,347 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JFrame;
+import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyleContext;
+import javax.swing.text.StyledDocument;
+
+/**
+ * The OutputWindow shows the game's text in a Swing window.<p>
+ * The game thread never touches the document itself: it only queues up updates, and once a frame
+ * the Event Dispatch Thread takes everything queued so far, joins neighbouring fragments of the same style,
+ * and inserts each run in one go.<p>
+ * Every color gets its own immutable style, built once, so drawing never edits a style the document is using.<p>
+ * The start of the document is split into the Screen's regions, each of which can be redrawn on its own;
+ * plain text goes after the last region.<p>
+ * The document keeps a bounded scrollback: once it holds more than its character or line budget, the oldest
+ * whole lines are cut in one go, down to three quarters of the budget, so a long session without a clear()
+ * neither keeps growing nor trims on every insert. The plain text is cut first, then the front of each region;
+ * a region that loses text is reported by takeTrimmedRegions(), so the Screen redraws it in full next time.<p>
+ * Nothing to do with Swing is built until the first text arrives: then the frame is built on the
+ * Event Dispatch Thread while the game carries on, so starting the game doesn't wait for the window.
+ */
+public class OutputWindow implements RegionRenderer {
+    // how often queued text is drawn, roughly once per frame at 60 fps
+    private static final int FRAME_MILLIS = 16;
+    // the "region" of text added with the plain OutputSink methods, after all the real regions
+    private static final int NO_REGION = -1;
+    // scrollback budget for the window on screen, far more than a turn ever shows
+    public static final int DEFAULT_MAX_CHARS = 100_000;
+    public static final int DEFAULT_MAX_LINES = 2_000;
+
+    private StyledDocument doc;
+    private AttributeSet baseStyle;
+    private Map<Color, AttributeSet> styles = new HashMap<>(); // only used on the EDT
+    private int[] regionLengths = new int[Screen.Region.values().length]; // only used on the EDT
+    private Color background;
+    private JTextPane textPane;
+    private Queue<Update> pending = new ConcurrentLinkedQueue<>();
+    private AtomicBoolean frameRequested = new AtomicBoolean();
+    private AtomicInteger trimmedRegions = new AtomicInteger(); // one bit per region cut by trimScrollback()
+    private int maxChars;
+    private int maxLines;
+
+    /**
+     * Makes a window that will appear when it is first given something to show, with the default scrollback.
+     */
+    public OutputWindow() {
+        this(DEFAULT_MAX_CHARS, DEFAULT_MAX_LINES);
+    }
+
+    /**
+     * Makes a window that will appear when it is first given something to show.
+     *
+     * @param maxChars The most characters the document holds before its oldest lines are cut.
+     * @param maxLines The most lines the document holds before its oldest lines are cut.
+     */
+    public OutputWindow(int maxChars, int maxLines) {
+        if (maxChars < 1 || maxLines < 1) {
+            throw new IllegalArgumentException("scrollback budget must be positive: " + maxChars + " chars, " + maxLines + " lines");
+        }
+        this.maxChars = maxChars;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Builds and shows the frame, and starts drawing. This must run on the Event Dispatch Thread.
+     */
+    private void showFrame() {
+        JFrame frame = new JFrame("Test");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // causes program to end when window is X'd out
+        frame.setSize(500, 900); // window size
+        frame.setLocation(1100, 0); // where on screen window appears
+        setUpPane(new JTextPane()); // panel that can handle custom text
+        frame.add(textPane); // add the panel to the frame
+        frame.setVisible(true); // display the frame on screen
+        frame.setBackground(Colors.gray);
+        new Timer(FRAME_MILLIS, e -> drain()).start(); // Swing timers fire on the EDT
+    }
+
+    /**
+     * Writes into a text pane that isn't shown in any frame, e.g. to measure document inserts on a headless machine.
+     * Nothing is drawn until drain() is called.
+     *
+     * @param pane The pane to write into.
+     */
+    OutputWindow(JTextPane pane) {
+        this(pane, DEFAULT_MAX_CHARS, DEFAULT_MAX_LINES);
+    }
+
+    /**
+     * Writes into a text pane that isn't shown in any frame, with the given scrollback.
+     *
+     * @param pane The pane to write into.
+     * @param maxChars The most characters the document holds before its oldest lines are cut.
+     * @param maxLines The most lines the document holds before its oldest lines are cut.
+     */
+    OutputWindow(JTextPane pane, int maxChars, int maxLines) {
+        this(maxChars, maxLines);
+        frameRequested.set(true); // there is never a frame
+        setUpPane(pane);
+    }
+
+    private void setUpPane(JTextPane pane) {
+        textPane = pane;
+        textPane.setEditable(false); // prevents user from typing into window
+        doc = textPane.getStyledDocument(); // call getter method for panel's style doc
+        StyleContext context = StyleContext.getDefaultStyleContext();
+        baseStyle = context.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.FontSize, 25);
+        for (Color color : Colors.all) {
+            styleFor(color);
+        }
+        setBackground(Colors.gray);
+    }
+
+    /**
+     * @return the style for text of the given color, building it the first time the color is seen.
+     */
+    private AttributeSet styleFor(Color color) {
+        AttributeSet style = styles.get(color);
+        if (style == null) {
+            style = StyleContext.getDefaultStyleContext().addAttribute(baseStyle, StyleConstants.Foreground, color);
+            styles.put(color, style);
+        }
+        return style;
+    }
+
+    private void setBackground(Color color) {
+        if (!color.equals(background)) {
+            background = color;
+            textPane.setBackground(color);
+        }
+    }
+
+    public void addTextToWindow(String text, Color color) {
+        queue(new Update(Update.APPEND, NO_REGION, text, color, null));
+    }
+
+    public void addTextToWindow(String text) {
+        queue(new Update(Update.APPEND, NO_REGION, text, Color.black, null));
+    }
+
+    public void clear() {
+        queue(Update.CLEAR);
+    }
+
+    public void appendToRegion(int region, String text, Color color) {
+        queue(new Update(Update.APPEND, region, text, color, null));
+    }
+
+    public void replaceRegion(int region, List<Fragment> fragments) {
+        queue(new Update(Update.REPLACE, region, null, null, fragments));
+    }
+
+    public int takeTrimmedRegions() {
+        return trimmedRegions.getAndSet(0);
+    }
+
+    /**
+     * Queues an update to be drawn, asking for the frame to be built if this is the first one.
+     */
+    private void queue(Update update) {
+        pending.add(update);
+        if (!frameRequested.get() && frameRequested.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::showFrame);
+        }
+    }
+
+    /**
+     * Draws everything queued so far. This must run on the Event Dispatch Thread, which the frame's timer does.
+     */
+    void drain() {
+        Update update = pending.poll();
+        if (update == null) {
+            return;
+        }
+        StringBuilder run = new StringBuilder();
+        AttributeSet runStyle = null;
+        int runRegion = NO_REGION;
+        for (; update != null; update = pending.poll()) {
+            if (update.kind == Update.CLEAR_ALL) {
+                // anything still waiting to be drawn would be wiped straight away
+                run.setLength(0);
+                removeAll();
+            } else if (update.kind == Update.REPLACE) {
+                flush(run, runStyle, runRegion);
+                replace(update.region, update.fragments);
+            } else {
+                AttributeSet style = styleFor(update.color);
+                if ((style != runStyle || update.region != runRegion) && run.length() > 0) {
+                    flush(run, runStyle, runRegion);
+                }
+                run.append(update.text);
+                runStyle = style;
+                runRegion = update.region;
+            }
+        }
+        flush(run, runStyle, runRegion);
+        trimScrollback();
+    }
+
+    /**
+     * Cuts the oldest lines once the document is over its character or line budget, taking it down to
+     * three quarters of the budget.
+     */
+    private void trimScrollback() {
+        if (doc.getLength() <= maxChars && doc.getDefaultRootElement().getElementCount() <= maxLines) {
+            return;
+        }
+        int keepChars = maxChars - maxChars / 4;
+        int keepLines = Math.max(1, maxLines - maxLines / 4);
+        trimFront(NO_REGION, keepChars, keepLines);
+        for (int region = 0; region < regionLengths.length; region++) {
+            trimFront(region, keepChars, keepLines);
+        }
+    }
+
+    /**
+     * Removes whole lines from the front of a region (or of the plain text) with a single remove,
+     * until the document is within the given sizes or the region is empty.
+     */
+    private void trimFront(int region, int keepChars, int keepLines) {
+        int start = region == NO_REGION ? regionStart(regionLengths.length) : regionStart(region);
+        int length = region == NO_REGION ? doc.getLength() - start : regionLengths[region];
+        Element lines = doc.getDefaultRootElement();
+        int cut = doc.getLength() - keepChars;
+        int extraLines = lines.getElementCount() - keepLines;
+        if (extraLines > 0) {
+            int line = lines.getElementIndex(start) + extraLines;
+            cut = Math.max(cut, line < lines.getElementCount() ? lines.getElement(line).getStartOffset() - start : length);
+        }
+        if (cut <= 0 || length == 0) {
+            return;
+        }
+        Element last = lines.getElement(lines.getElementIndex(start + Math.min(cut, length)));
+        if (cut < length && last.getStartOffset() != start + cut) {
+            cut = last.getEndOffset() - start; // finish the line the cut lands in rather than leave half of it
+        }
+        cut = Math.min(cut, length);
+        try {
+            doc.remove(start, cut); }
+        catch (BadLocationException e) { }
+        if (region != NO_REGION) {
+            regionLengths[region] -= cut;
+            trimmedRegions.getAndUpdate(regions -> regions | 1 << region); // the Screen has to draw it again
+        }
+    }
+
+    /**
+     * Inserts a run of same-style text at the end of its region, then empties the run.
+     */
+    private void flush(StringBuilder run, AttributeSet style, int region) {
+        if (run.length() == 0) {
+            return;
+        }
+        if (region == NO_REGION) {
+            insert(doc.getLength(), run, style);
+        } else {
+            insert(regionStart(region) + regionLengths[region], run, style);
+            regionLengths[region] += run.length();
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * Swaps a region's text for new fragments, joining neighbouring fragments of the same style.
+     */
+    private void replace(int region, List<Fragment> fragments) {
+        int start = regionStart(region);
+        try {
+            doc.remove(start, regionLengths[region]); }
+        catch (BadLocationException e) { }
+        regionLengths[region] = 0;
+        StringBuilder run = new StringBuilder();
+        AttributeSet runStyle = null;
+        for (Fragment fragment : fragments) {
+            AttributeSet style = styleFor(fragment.getColor());
+            if (style != runStyle && run.length() > 0) {
+                flush(run, runStyle, region);
+            }
+            run.append(fragment.getText());
+            runStyle = style;
+        }
+        flush(run, runStyle, region);
+    }
+
+    private int regionStart(int region) {
+        int start = 0;
+        for (int i = 0; i < region; i++) {
+            start += regionLengths[i];
+        }
+        return start;
+    }
+
+    private void insert(int offset, CharSequence text, AttributeSet style) {
+        try {
+            doc.insertString(offset, text.toString(), style); } // insert text into the panel
+        catch (BadLocationException e) { }
+    }
+
+    private void removeAll() {
+        try {
+            doc.remove(0, doc.getLength()); } // empty the panel to "reset it"
+        catch (BadLocationException e) { }
+        Arrays.fill(regionLengths, 0);
+    }
+
+    /**
+     * A change waiting to be drawn: text added to a region (or after them all), a region's new contents,
+     * or the marker for a clear().
+     */
+    private static class Update {
+        static final int APPEND = 0;
+        static final int REPLACE = 1;
+        static final int CLEAR_ALL = 2;
+        static final Update CLEAR = new Update(CLEAR_ALL, NO_REGION, null, null, null);
+
+        final int kind;
+        final int region;
+        final String text;
+        final Color color;
+        final List<Fragment> fragments;
+
+        Update(int kind, int region, String text, Color color, List<Fragment> fragments) {
+            this.kind = kind;
+            this.region = region;
+            this.text = text;
+            this.color = color;
+            this.fragments = fragments;
+        }
+    }
+}
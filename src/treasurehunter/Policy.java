@@ -0,0 +1,30 @@
+package treasurehunter;
+
+/**
+ * A Policy decides what an automated player does each turn in the headless simulation.<p>
+ * It only sees read-only views of the hunter and the town, and never reads a line or shows anything:
+ * the Simulation carries out whatever it decides. The same Policy object is shared by every game running in parallel, so implementations
+ * should not keep any per-game state.
+ */
+
+public interface Policy {
+
+    /**
+     * Picks the next move, using the same letters as the main menu (b, s, e, m, l, h, d or x).
+     *
+     * @param hunter The hunter being played.
+     * @param town The town the hunter is currently in.
+     * @return The (lower case) menu choice.
+     */
+    String nextMove(HunterView hunter, TownView town);
+
+    /**
+     * Picks the item to trade after the policy chose to (b)uy or (s)ell.
+     *
+     * @param hunter The hunter being played.
+     * @param town The town the hunter is currently in.
+     * @param isBuying Whether the hunter is buying or selling.
+     * @return The item to trade, or null to leave the shop without trading.
+     */
+    Item chooseItem(HunterView hunter, TownView town, boolean isBuying);
+}
@@ -0,0 +1,119 @@
+package treasurehunter;
+
+/**
+ * The PriceCatalog holds what a shop charges for every item and what it pays to buy each one back.<p>
+ * Both price lists are worked out once, when the catalog is built, so looking up a price is just an
+ * array index by item. A catalog never changes after it is built, so one can be shared by any number
+ * of shops and threads.
+ */
+
+public class PriceCatalog {
+    // the price given for anything the shop doesn't deal in
+    public static final int NOT_SOLD = -100;
+
+    // constants
+    private static final int SWORD_COST = 0;
+    private static final int WATER_COST = 2;
+    private static final int ROPE_COST = 4;
+    private static final int MACHETE_COST = 6;
+    private static final int SHOVEL_COST = 8;
+    private static final int HORSE_COST = 12;
+    private static final int BOOTS_COST = 16;
+    private static final int BOAT_COST = 20;
+
+    // instance variables
+    private final int[] buyPrices;
+    private final int[] sellPrices;
+
+    /**
+     * Builds the catalog with the standard item costs.
+     *
+     * @param markdown Percentage of markdown for selling items in decimal format.
+     * @param sword Whether the sword is for sale.
+     * @param easyMode Whether items sell back at full price.
+     */
+    public PriceCatalog(double markdown, boolean sword, boolean easyMode) {
+        this(standardCosts(), markdown, sword, easyMode);
+    }
+
+    /**
+     * Builds the catalog from a custom list of item costs.
+     *
+     * @param baseCosts The cost of each item, indexed by Item.ordinal().
+     * @param markdown Percentage of markdown for selling items in decimal format.
+     * @param sword Whether the sword is for sale.
+     * @param easyMode Whether items sell back at full price.
+     */
+    public PriceCatalog(int[] baseCosts, double markdown, boolean sword, boolean easyMode) {
+        Item[] items = Item.values();
+        buyPrices = new int[items.length];
+        sellPrices = new int[items.length];
+        for (Item item : items) {
+            int i = item.ordinal();
+            if (item == Item.SWORD && !sword) {
+                buyPrices[i] = NOT_SOLD;
+                sellPrices[i] = NOT_SOLD;
+            } else {
+                buyPrices[i] = baseCosts[i];
+                // in easy mode, you get back everything you paid
+                sellPrices[i] = easyMode ? baseCosts[i] : (int) (baseCosts[i] * markdown);
+            }
+        }
+    }
+
+    /**
+     * @return The standard cost of each item, indexed by Item.ordinal().
+     */
+    public static int[] standardCosts() {
+        int[] costs = new int[Item.values().length];
+        costs[Item.WATER.ordinal()] = WATER_COST;
+        costs[Item.ROPE.ordinal()] = ROPE_COST;
+        costs[Item.MACHETE.ordinal()] = MACHETE_COST;
+        costs[Item.SHOVEL.ordinal()] = SHOVEL_COST;
+        costs[Item.HORSE.ordinal()] = HORSE_COST;
+        costs[Item.BOOTS.ordinal()] = BOOTS_COST;
+        costs[Item.BOAT.ordinal()] = BOAT_COST;
+        costs[Item.SWORD.ordinal()] = SWORD_COST;
+        return costs;
+    }
+
+    /**
+     * @param scale What to multiply every cost by.
+     * @return The standard cost of each item times the scale, rounded; nothing that costs anything drops to free.
+     */
+    public static int[] scaledCosts(double scale) {
+        int[] costs = standardCosts();
+        if (scale != 1) {
+            for (int i = 0; i < costs.length; i++) {
+                if (costs[i] > 0) {
+                    costs[i] = Math.max(1, (int) Math.round(costs[i] * scale));
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * @param item The item being bought.
+     * @return What the shop charges for the item, or NOT_SOLD.
+     */
+    public int getBuyPrice(Item item) {
+        return buyPrices[item.ordinal()];
+    }
+
+    /**
+     * @param item The item being sold.
+     * @return What the shop pays for the item, or NOT_SOLD.
+     */
+    public int getSellPrice(Item item) {
+        return sellPrices[item.ordinal()];
+    }
+
+    /**
+     * @param item The item in question.
+     * @return true if the shop deals in the item at all.
+     */
+    public boolean isForSale(Item item) {
+        return buyPrices[item.ordinal()] != NOT_SOLD;
+    }
+}
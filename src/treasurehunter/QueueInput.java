@@ -0,0 +1,46 @@
+package treasurehunter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * QueueInput is fed lines by another thread (a test, a load generator or a network connection)
+ * and hands them to the game in order, waiting whenever the queue is empty.
+ */
+
+public class QueueInput implements InputSource {
+    // put on the queue by close() to wake up the game and tell it input is over
+    private static final String END = new String("end of input");
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Adds a line for the game to read.
+     *
+     * @param line The line to add.
+     */
+    public void offer(String line) {
+        queue.add(line);
+    }
+
+    /**
+     * Ends the input; the game reads whatever is already queued and then sees the end of input.
+     */
+    public void close() {
+        queue.add(END);
+    }
+
+    public String nextLine() {
+        try {
+            String line = queue.take();
+            if (line == END) {
+                queue.add(END); // leave the marker for any later reads
+                return null;
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
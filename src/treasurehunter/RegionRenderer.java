@@ -0,0 +1,40 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * A RegionRenderer is an OutputSink that can redraw one part of the screen without touching the rest.<p>
+ * Regions are numbered from the top of the screen down (see Screen.Region) and come before any text
+ * added with the plain OutputSink methods.
+ */
+
+public interface RegionRenderer extends OutputSink {
+
+    /**
+     * Adds text to the end of a region.
+     *
+     * @param region The region's number.
+     * @param text The text to add.
+     * @param color The color to show it in.
+     */
+    void appendToRegion(int region, String text, Color color);
+
+    /**
+     * Replaces everything in a region.
+     *
+     * @param region The region's number.
+     * @param fragments The region's new contents; an empty list empties the region.
+     */
+    void replaceRegion(int region, List<Fragment> fragments);
+
+    /**
+     * Hands over which regions have lost text since the last call, e.g. to a bounded scrollback, and so no longer
+     * show what was last put in them, then forgets them. May be called from any thread.
+     *
+     * @return one bit (1 << region) for each such region; 0 if the renderer never drops text.
+     */
+    default int takeTrimmedRegions() {
+        return 0;
+    }
+}
@@ -0,0 +1,182 @@
+package treasurehunter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The ReplayCorpus is a file of GameRecordings, made by letting a random player loose on the game,
+ * that can be replayed all at once to check a change to Town or Shop didn't change how the game plays.<p>
+ * Record a corpus before the change and check it after: every game is replayed on every core,
+ * and the first few games that went differently are printed along with the step where they split off.
+ */
+
+public class ReplayCorpus {
+    private static final int MAGIC = 0x54485243; // "THRC"
+    private static final int VERSION = 2;
+    // the last version whose recordings didn't carry a balance, which were all played with the built-in one
+    private static final int VERSION_WITHOUT_BALANCE = 1;
+    // the random player's menu choices; b and s go on to name an item and answer y or n
+    private static final String[] MOVES = {"b", "s", "e", "m", "l", "h", "d"};
+    private static final String[] MODES = {"e", "n", "h", "s"};
+    // how many games that went differently are described in full
+    private static final int MISMATCHES_SHOWN = 5;
+
+    /**
+     * Plays games with a random player and records them.
+     *
+     * @param games How many games to play.
+     * @param maxTurns The most menu choices the player makes before quitting.
+     * @param seed The seed every game's seed and moves are drawn from.
+     * @return The recordings, in the same order for the same seed.
+     */
+    public static List<GameRecording> generate(int games, int maxTurns, long seed) {
+        return generate(games, maxTurns, seed, Balance.BUILT_IN);
+    }
+
+    /**
+     * Plays games with a random player and another balance, e.g. a tuned one, and records them.
+     *
+     * @param games How many games to play.
+     * @param maxTurns The most menu choices the player makes before quitting.
+     * @param seed The seed every game's seed and moves are drawn from.
+     * @param balance The economy of every mode the games are played with.
+     * @return The recordings, in the same order for the same seed.
+     */
+    public static List<GameRecording> generate(int games, int maxTurns, long seed, Balance balance) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom[] players = new SplittableRandom[games];
+        for (int i = 0; i < games; i++) {
+            players[i] = random.split(); // drawn up front so each game is the same however the work is spread out
+        }
+        return IntStream.range(0, games).parallel()
+                .mapToObj(i -> GameRecording.record(players[i].nextLong(), balance, new ScriptInput(randomScript(players[i], maxTurns)),
+                        NullOutputSink.INSTANCE))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the lines a random player would type: a name, a mode, then random menu choices and shop answers,
+     * and finally x. A game that ends sooner leaves the rest unread.
+     */
+    private static List<String> randomScript(SplittableRandom random, int maxTurns) {
+        List<String> lines = new ArrayList<>();
+        lines.add("bot");
+        lines.add(MODES[random.nextInt(MODES.length)]);
+        Item[] items = Item.values();
+        for (int turn = 0; turn < maxTurns; turn++) {
+            String move = MOVES[random.nextInt(MOVES.length)];
+            lines.add(move);
+            if (move.equals("b") || move.equals("s")) {
+                lines.add(items[random.nextInt(items.length)].getName());
+                lines.add(random.nextInt(4) == 0 ? "n" : "y");
+            }
+        }
+        lines.add("x");
+        return lines;
+    }
+
+    /**
+     * Replays every recording in parallel.
+     *
+     * @param recordings The recordings to replay.
+     * @return The index of every recording that went differently, in order.
+     */
+    public static int[] check(List<GameRecording> recordings) {
+        return IntStream.range(0, recordings.size()).parallel()
+                .filter(i -> recordings.get(i).replay() >= 0)
+                .toArray();
+    }
+
+    /**
+     * Writes a corpus: a header, the number of recordings, then each recording.
+     *
+     * @param file Where the corpus is written.
+     * @param recordings The recordings to write.
+     */
+    public static void write(Path file, List<GameRecording> recordings) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(recordings.size());
+            for (GameRecording recording : recordings) {
+                recording.write(out);
+            }
+        }
+    }
+
+    /**
+     * Reads back a corpus written by write().
+     *
+     * @param file The corpus file.
+     * @return The recordings, in the order they were written.
+     */
+    public static List<GameRecording> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a replay corpus");
+            }
+            int version = in.readInt();
+            if (version != VERSION && version != VERSION_WITHOUT_BALANCE) {
+                throw new IOException("Unsupported replay corpus version " + version);
+            }
+            int count = in.readInt();
+            List<GameRecording> recordings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                recordings.add(GameRecording.read(in, version != VERSION_WITHOUT_BALANCE));
+            }
+            return recordings;
+        }
+    }
+
+    /**
+     * Records or checks a corpus from the command line.<p>
+     * Arguments: "record", the corpus file, then optionally the number of games (default 5000),
+     * the most turns per game (default 100) and a seed; or "check" and the corpus file.
+     * --balance=FILE records the games with the economy BalanceTuner wrote to the file; every recording keeps
+     * its balance, so checking needs no option. Checking exits with status 1 if any game went differently.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        Balance balance = Balance.fromOption(rest);
+        Path file = Paths.get(rest.get(1));
+        if (rest.get(0).equals("record")) {
+            int games = rest.size() > 2 ? Integer.parseInt(rest.get(2)) : 5000;
+            int maxTurns = rest.size() > 3 ? Integer.parseInt(rest.get(3)) : 100;
+            long seed = rest.size() > 4 ? Long.parseLong(rest.get(4)) : new SplittableRandom().nextLong();
+            List<GameRecording> recordings = generate(games, maxTurns, seed, balance);
+            write(file, recordings);
+            System.out.println("Recorded " + games + " games with seed " + seed + " to " + file + " (" + Files.size(file) + " bytes)");
+            return;
+        }
+        List<GameRecording> recordings = read(file);
+        long lines = recordings.stream().mapToLong(GameRecording::getLineCount).sum();
+        long start = System.nanoTime();
+        int[] mismatches = check(recordings);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Replayed " + recordings.size() + " games (" + lines + " lines) on "
+                + ForkJoinPool.getCommonPoolParallelism() + " workers in " + millis + " ms");
+        if (mismatches.length == 0) {
+            System.out.println("Every game went exactly as recorded.");
+            return;
+        }
+        System.out.println(mismatches.length + " games went differently, e.g.:");
+        for (int i = 0; i < Math.min(MISMATCHES_SHOWN, mismatches.length); i++) {
+            GameRecording recording = recordings.get(mismatches[i]);
+            System.out.println("  game " + mismatches[i] + ", " + recording.describeMismatch(recording.replay()));
+        }
+        System.exit(1);
+    }
+}
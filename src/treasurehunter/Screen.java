@@ -0,0 +1,134 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Screen splits the game's display into named regions, one after the other from top to bottom.<p>
+ * The regions that are rebuilt every turn (news, status, town and menu) are written between beginRegion()
+ * and endRegion(), and are only redrawn if they came out different from last time. Everything else, such as
+ * the result of the last action, goes straight into the ACTION region as it happens, and clear() empties it.<p>
+ * If the screen is drawn on something that can't redraw just one region, every write is passed straight on,
+ * which draws the whole screen each turn just as before.
+ */
+
+public class Screen implements OutputSink {
+
+    /**
+     * The regions of the screen, in the order they are shown.
+     */
+    public enum Region {
+        ACTION, NEWS, STATUS, TOWN, MENU
+    }
+
+    // instance variables
+    private OutputSink target;
+    private RegionRenderer renderer; // null if target can't redraw single regions
+    private Region building;
+    private List<Fragment> buffer;
+    private List<List<Fragment>> shown; // an entry is null if the region no longer shows what was last drawn
+
+    /**
+     * @param target Where the screen is drawn.
+     */
+    public Screen(OutputSink target) {
+        this.target = target;
+        if (target instanceof RegionRenderer) {
+            renderer = (RegionRenderer) target;
+        }
+        building = null;
+        buffer = new ArrayList<>();
+        shown = new ArrayList<>();
+        for (int i = 0; i < Region.values().length; i++) {
+            shown.add(Collections.emptyList());
+        }
+    }
+
+    /**
+     * Starts rebuilding a region; text added until endRegion() makes up the region's new contents.
+     *
+     * @param region The region being rebuilt.
+     */
+    public void beginRegion(Region region) {
+        building = region;
+        buffer.clear();
+    }
+
+    /**
+     * Finishes rebuilding the region and redraws it if its contents changed.
+     */
+    public void endRegion() {
+        if (renderer != null) {
+            forgetTrimmedRegions();
+        }
+        if (renderer != null && !buffer.equals(shown.get(building.ordinal()))) {
+            List<Fragment> contents = new ArrayList<>(buffer);
+            shown.set(building.ordinal(), contents);
+            renderer.replaceRegion(building.ordinal(), contents);
+        }
+        building = null;
+        buffer.clear();
+    }
+
+    /**
+     * Forgets what was drawn in every region the renderer has since cut text from, so they are drawn again in full.
+     */
+    private void forgetTrimmedRegions() {
+        int trimmed = renderer.takeTrimmedRegions();
+        for (int region = 0; trimmed != 0; region++, trimmed >>>= 1) {
+            if ((trimmed & 1) != 0) {
+                shown.set(region, null);
+            }
+        }
+    }
+
+    /**
+     * Empties every region that is rebuilt each turn, leaving only the ACTION region on screen.
+     */
+    public void clearRegions() {
+        for (Region region : Region.values()) {
+            if (region != Region.ACTION) {
+                beginRegion(region);
+                endRegion();
+            }
+        }
+    }
+
+    public void addTextToWindow(String text, Color color) {
+        if (renderer == null) {
+            target.addTextToWindow(text, color);
+        } else if (building != null) {
+            buffer.add(new Fragment(text, color));
+        } else {
+            renderer.appendToRegion(Region.ACTION.ordinal(), text, color);
+        }
+    }
+
+    public void addTextToWindow(String text) {
+        addTextToWindow(text, Color.black);
+    }
+
+    /**
+     * Empties the ACTION region (or the region being rebuilt). The other regions stay up; a dialogue that takes
+     * the place of the menu, such as the shop's, should call clearRegions() first.
+     */
+    public void clear() {
+        if (renderer == null) {
+            target.clear();
+        } else if (building != null) {
+            buffer.clear();
+        } else {
+            renderer.replaceRegion(Region.ACTION.ordinal(), Collections.emptyList());
+        }
+    }
+
+    public void flush() {
+        target.flush();
+    }
+
+    public boolean isEnabled() {
+        return target.isEnabled();
+    }
+}
@@ -0,0 +1,56 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * ScriptInput plays back a list of lines loaded up front, one per call, and then reports the end of input.<p>
+ * It never waits, so a script can drive a game as fast as the game can run. A ScriptInput belongs to a
+ * single game and is not thread safe.
+ */
+
+public class ScriptInput implements InputSource {
+    private final String[] lines;
+    private int next;
+
+    /**
+     * @param lines The lines to play back, in order.
+     */
+    public ScriptInput(String... lines) {
+        this.lines = lines.clone();
+        next = 0;
+    }
+
+    /**
+     * @param lines The lines to play back, in order.
+     */
+    public ScriptInput(List<String> lines) {
+        this(lines.toArray(new String[0]));
+    }
+
+    /**
+     * Loads a script with one command per line.
+     *
+     * @param file The script file.
+     * @return The loaded script.
+     */
+    public static ScriptInput fromFile(Path file) throws IOException {
+        return new ScriptInput(Files.readAllLines(file));
+    }
+
+    public String nextLine() {
+        if (next == lines.length) {
+            return null;
+        }
+        return lines[next++];
+    }
+
+    /**
+     * @return How many lines have been read so far.
+     */
+    public int getLinesRead() {
+        return next;
+    }
+}
@@ -0,0 +1,229 @@
+package treasurehunter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SessionStore keeps games nobody is playing right now, e.g. those of GameServer players who have wandered
+ * off mid-game, in four longs each instead of a whole TreasureHunter with its Hunter, Town, Shop, Terrain and screen.<p>
+ * Every parked game is packed (see TreasureHunter.dehydrate()) into one shared long array, four longs apart:
+ * <pre>
+ *   long 0: gold | kit | treasures | kit capacity | terrain | treasure | town flags | mode | game over
+ *   long 1: the seed the rest of the game is rolled from
+ *   long 2: turns played | the hunter's town in the world
+ *   long 3: the hunter's name, 6 bits a letter
+ * </pre>
+ * so a million parked games take about 32 MB and no objects at all. Names that don't fit in a long
+ * (longer than ten letters, or with letters outside NAME_LETTERS) are kept in a map instead, and so are the
+ * worlds of games that keep one (see GameContext.setWorldKept()), which can't be packed.
+ * Parking a game and picking it back up play on exactly as save() and restore() would, except that the
+ * town's latest news is dropped.<p>
+ * Every method is synchronized; parking and resuming only pack or unpack a few longs, so nobody waits long.
+ */
+
+public class SessionStore {
+    private static final int STRIDE = TreasureHunter.PACKED_LONGS + 1;
+    // the letters a packed name can use; letter i is stored as i + 1, so 0 ends the name
+    private static final String NAME_LETTERS = "abcdefghijklmnopqrstuvwxyz0123456789 -'._";
+    private static final int BITS_PER_LETTER = 6;
+    private static final int MAX_PACKED_LETTERS = Long.SIZE / BITS_PER_LETTER;
+    // the name long of a free slot, and of a game whose name is in longNames
+    private static final long FREE = 0;
+    private static final long LONG_NAME = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // instance variables
+    private long[] sessions = new long[INITIAL_CAPACITY * STRIDE];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextId; // every id below this has been handed out at least once
+    private int size;
+    private Map<Integer, String> longNames = new HashMap<>();
+    private Map<Integer, World> worlds = new HashMap<>();
+
+    /**
+     * Packs a game away. The game must not be played again; resume() gives back a new one to play instead.
+     *
+     * @param game A game between turns, past picking a name and mode.
+     * @return The id to resume the game with.
+     */
+    public synchronized int park(TreasureHunter game) {
+        Hunter hunter = game.getHunter();
+        if (hunter == null) {
+            throw new IllegalStateException("A game can't be parked before the hunter has a name and a mode");
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if ((nextId + 1) * STRIDE > sessions.length) {
+                sessions = Arrays.copyOf(sessions, sessions.length * 2);
+                freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+            }
+            id = nextId++;
+        }
+        int at = id * STRIDE;
+        game.dehydrate(sessions, at);
+        long name = packName(hunter.getHunterName());
+        if (name == LONG_NAME) {
+            longNames.put(id, hunter.getHunterName());
+        }
+        sessions[at + TreasureHunter.PACKED_LONGS] = name;
+        if (game.getWorld() != null) {
+            worlds.put(id, game.getWorld());
+        }
+        size++;
+        return id;
+    }
+
+    /**
+     * Unpacks a parked game into a session and frees its id; call resume() on the game to carry on playing it.
+     *
+     * @param id The id park() gave back.
+     * @param context The session the game carries on in, with its input, output, event log, leaderboard and market;
+     * its seed and mode are replaced with the parked game's.
+     * @return The game, with the hunter and town as they were parked.
+     */
+    public synchronized TreasureHunter resume(int id, GameContext context) {
+        if (!isParked(id)) {
+            throw new IllegalArgumentException("No game is parked as " + id);
+        }
+        int at = id * STRIDE;
+        long name = sessions[at + TreasureHunter.PACKED_LONGS];
+        String hunterName = name == LONG_NAME ? longNames.remove(id) : unpackName(name);
+        TreasureHunter game = TreasureHunter.hydrate(sessions, at, hunterName, worlds.remove(id), context);
+        sessions[at + TreasureHunter.PACKED_LONGS] = FREE;
+        freeIds[freeCount++] = id;
+        size--;
+        return game;
+    }
+
+    /**
+     * Throws a parked game away and frees its id, e.g. when its player has hung up.
+     *
+     * @param id The id park() gave back.
+     */
+    public synchronized void discard(int id) {
+        if (!isParked(id)) {
+            throw new IllegalArgumentException("No game is parked as " + id);
+        }
+        sessions[id * STRIDE + TreasureHunter.PACKED_LONGS] = FREE;
+        longNames.remove(id);
+        worlds.remove(id);
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    public synchronized boolean isParked(int id) {
+        return id >= 0 && id < nextId && sessions[id * STRIDE + TreasureHunter.PACKED_LONGS] != FREE;
+    }
+
+    // accessors
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the bytes held in the store's arrays, parked or free; long names and the map holding them are extra.
+     */
+    public synchronized long getArrayBytes() {
+        return (long) sessions.length * Long.BYTES + (long) freeIds.length * Integer.BYTES;
+    }
+
+    /**
+     * @return the name in 6 bits a letter, first letter lowest; or LONG_NAME if it doesn't fit, or is empty
+     * (which would look like FREE).
+     */
+    static long packName(String name) {
+        if (name.isEmpty() || name.length() > MAX_PACKED_LETTERS) {
+            return LONG_NAME;
+        }
+        long packed = 0;
+        for (int i = 0; i < name.length(); i++) {
+            int letter = NAME_LETTERS.indexOf(name.charAt(i));
+            if (letter < 0) {
+                return LONG_NAME;
+            }
+            packed |= (long) (letter + 1) << (i * BITS_PER_LETTER);
+        }
+        return packed;
+    }
+
+    static String unpackName(long packed) {
+        StringBuilder name = new StringBuilder(MAX_PACKED_LETTERS);
+        for (; packed != 0; packed >>>= BITS_PER_LETTER) {
+            name.append(NAME_LETTERS.charAt((int) (packed & ((1 << BITS_PER_LETTER) - 1)) - 1));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Measures what parked games cost against keeping them live, and how long parking and resuming take.<p>
+     * Arguments (all optional): how many games to park (default 1000000), how many to keep live
+     * for comparison (default 100000), seed (default 42).
+     */
+    public static void main(String[] args) {
+        int parked = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int live = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        long before = usedHeap();
+        List<TreasureHunter> games = new ArrayList<>(live);
+        for (int i = 0; i < live; i++) {
+            games.add(playSome(seed + i));
+        }
+        long liveBytes = usedHeap() - before;
+        Reference.reachabilityFence(games); // or the games could be collected before they are measured
+        System.out.printf("%,d live games: %,d bytes of heap, %d bytes a game%n", live, liveBytes, liveBytes / live);
+        games = null; // the parked games are measured from a heap without the live ones
+
+        before = usedHeap();
+        SessionStore store = new SessionStore();
+        long parkNanos = 0;
+        for (int i = 0; i < parked; i++) {
+            TreasureHunter game = playSome(seed + i);
+            long start = System.nanoTime();
+            store.park(game);
+            parkNanos += System.nanoTime() - start;
+        }
+        long parkedBytes = usedHeap() - before;
+        Reference.reachabilityFence(store);
+        System.out.printf("%,d parked games: %,d bytes of heap (%,d in arrays), %d bytes a game; %.0f ns to park%n",
+                parked, parkedBytes, store.getArrayBytes(), parkedBytes / parked, parkNanos / (double) parked);
+
+        long resumeNanos = 0;
+        for (int i = 0; i < parked; i++) {
+            long start = System.nanoTime();
+            TreasureHunter game = store.resume(i, new GameContext(0, new ScriptInput(), NullOutputSink.INSTANCE));
+            resumeNanos += System.nanoTime() - start;
+            if (game.getHunter().getGold() < 0) {
+                throw new AssertionError(); // keeps the game from being optimized away
+            }
+        }
+        System.out.printf("Resumed every game in %.0f ns each%n", resumeNanos / (double) parked);
+    }
+
+    /**
+     * @return a game a few turns in, stopped between turns.
+     */
+    private static TreasureHunter playSome(long seed) {
+        TreasureHunter game = new TreasureHunter(seed, new ScriptInput("hunter", "n", "b", "water", "y", "h", "d"),
+                NullOutputSink.INSTANCE);
+        game.play(); // the script runs out at the menu, which quits
+        return game;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,221 @@
+package treasurehunter;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A SharedTown is a town any number of hunters can be in at once, each playing on their own thread.<p>
+ * Unlike a Town, where the one hunter's search and dig use up the town, every hunter who arrives gets a Visit
+ * of their own that they can search and dig once. What the hunters race for is shared and runs out: the town
+ * holds a set number of copies of its treasure and a pit with a set amount of gold in it.<p>
+ * Nothing is locked. A Visit is only used by its own hunter's thread; the treasure is claimed with
+ * compare-and-set; and the gold pit is split into stripes, each on its own cache line, so hunters digging at
+ * the same time mostly take from different stripes and only move on to another once theirs is empty.
+ * The number of hunters in town is kept in a LongAdder for the same reason.
+ */
+
+public class SharedTown {
+    // longs per stripe of the gold pit, so each stripe sits on its own 64 byte cache line
+    private static final int STRIPE_SPACING = 8;
+
+    // instance variables
+    private Terrain terrain;
+    private Treasure treasure;
+    private AtomicInteger treasuresLeft;
+    private AtomicLongArray pit;
+    private int stripes;
+    private LongAdder occupants = new LongAdder();
+
+    /**
+     * Builds a town with a gold pit striped for every processor this program can use.
+     *
+     * @param terrain The surrounding terrain.
+     * @param treasure The treasure to be found here.
+     * @param treasureCount How many hunters can find the treasure before it is gone.
+     * @param gold How much gold is in the pit to begin with.
+     */
+    public SharedTown(Terrain terrain, Treasure treasure, int treasureCount, long gold) {
+        this(terrain, treasure, treasureCount, gold, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param terrain The surrounding terrain.
+     * @param treasure The treasure to be found here.
+     * @param treasureCount How many hunters can find the treasure before it is gone.
+     * @param gold How much gold is in the pit to begin with.
+     * @param stripes How many stripes the gold pit is split into; 1 makes it a single counter.
+     */
+    public SharedTown(Terrain terrain, Treasure treasure, int treasureCount, long gold, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("A gold pit needs at least one stripe: " + stripes);
+        }
+        this.terrain = terrain;
+        this.treasure = treasure;
+        treasuresLeft = new AtomicInteger(treasureCount);
+        this.stripes = stripes;
+        pit = new AtomicLongArray(stripes * STRIPE_SPACING);
+        for (int i = 0; i < stripes; i++) {
+            pit.set(i * STRIPE_SPACING, gold / stripes + (i < gold % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * Lets a hunter into town.
+     *
+     * @param hunter The hunter arriving; only the calling thread may use them while they are here.
+     * @param random The hunter's own random source, for their rolls while they are here.
+     * @return The hunter's visit, to search, dig and leave with.
+     */
+    public Visit arrive(Hunter hunter, SplittableRandom random) {
+        occupants.increment();
+        return new Visit(hunter, random);
+    }
+
+    /**
+     * Takes a copy of the treasure if any are left.
+     */
+    private boolean claimTreasure() {
+        int left = treasuresLeft.get();
+        while (left > 0) {
+            if (treasuresLeft.compareAndSet(left, left - 1)) {
+                return true;
+            }
+            left = treasuresLeft.get();
+        }
+        return false;
+    }
+
+    /**
+     * Takes up to the given amount of gold out of the pit, starting with the given stripe and moving on to the next
+     * whenever one runs dry.
+     *
+     * @return how much gold was taken; less than asked for only if the whole pit ran dry.
+     */
+    private int takeGold(int amount, int firstStripe) {
+        int taken = 0;
+        for (int i = 0; i < stripes && taken < amount; i++) {
+            int slot = (firstStripe + i) % stripes * STRIPE_SPACING;
+            long inStripe = pit.get(slot);
+            while (inStripe > 0 && taken < amount) {
+                int take = (int) Math.min(inStripe, amount - taken); // at most amount, so it fits
+                if (pit.compareAndSet(slot, inStripe, inStripe - take)) {
+                    taken += take;
+                    break;
+                }
+                inStripe = pit.get(slot);
+            }
+        }
+        return taken;
+    }
+
+    // accessors
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    public Treasure getTreasure() {
+        return treasure;
+    }
+
+    /**
+     * @return how many hunters are in town; only exact when nobody is arriving or leaving.
+     */
+    public long getOccupants() {
+        return occupants.sum();
+    }
+
+    public int getTreasuresLeft() {
+        return treasuresLeft.get();
+    }
+
+    /**
+     * @return how much gold is left in the pit; only exact when nobody is digging.
+     */
+    public long getGoldLeft() {
+        long gold = 0;
+        for (int i = 0; i < stripes; i++) {
+            gold += pit.get(i * STRIPE_SPACING);
+        }
+        return gold;
+    }
+
+    /**
+     * One hunter's stay in a SharedTown, with their own record of what they have done there.
+     * A visit belongs to its hunter's thread and is not thread safe.
+     */
+    public class Visit {
+        // instance variables
+        private Hunter hunter;
+        private SplittableRandom random;
+        private int stripe;
+        private boolean searched;
+        private boolean dug;
+        private boolean left;
+
+        Visit(Hunter hunter, SplittableRandom random) {
+            this.hunter = hunter;
+            this.random = random;
+            stripe = random.nextInt(stripes); // spreads the diggers over the pit
+        }
+
+        /**
+         * Searches the town once. A copy of the treasure is only taken if the hunter can keep it.
+         *
+         * @return true if the hunter found the treasure and kept it.
+         */
+        public boolean huntForTreasure() {
+            if (searched || left) {
+                return false;
+            }
+            searched = true;
+            if (!treasure.isCollectible() || (hunter.getTreasures() & treasure.getBit()) != 0 || hunter.treasuresFull()) {
+                return false; // leave the copy for someone who can use it
+            }
+            if (!claimTreasure()) {
+                return false; // the other hunters got there first
+            }
+            return hunter.addTreasure(treasure) == 0;
+        }
+
+        /**
+         * Digs in the pit once, if the hunter has a shovel, with the same odds as digging in a Town.
+         *
+         * @return the gold dug up; less than rolled if the pit is running dry.
+         */
+        public int digForGold() {
+            if (dug || left || !hunter.hasItemInKit(Item.SHOVEL)) {
+                return 0;
+            }
+            dug = true;
+            if (random.nextDouble() >= Town.DIG_CHANCE) {
+                return 0; // only dirt
+            }
+            int gold = takeGold(random.nextInt(Town.MAX_DIG_GOLD) + 1, stripe);
+            if (gold > 0) {
+                hunter.changeGold(gold);
+            }
+            return gold;
+        }
+
+        /**
+         * Leaves town; the visit can't be used after this.
+         */
+        public void leave() {
+            if (!left) {
+                left = true;
+                occupants.decrement();
+            }
+        }
+
+        // accessors
+        public boolean hasSearched() {
+            return searched;
+        }
+
+        public boolean hasDug() {
+            return dug;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package treasurehunter;
+
+/**
+ * The Shop class controls the cost of the items in the Treasure Hunt game. <p>
+ * The Shop class also acts as a go between for the Hunter's buyItem() method. <p>
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Shop {
+    // instance variables
+    private PriceCatalog prices;
+    private Market market; // null if prices never move
+    private Hunter customer;
+    private OutputSink window;
+
+    /**
+     * The Shop constructor takes in a markdown value and leaves customer null until one enters the shop.
+     *
+     * @param markdown Percentage of markdown for selling items in decimal format.
+     * @param sword Whether the sword is for sale.
+     * @param easyMode Whether items sell back at full price.
+     */
+    public Shop(double markdown, OutputSink win, boolean sword, boolean easyMode) {
+        this(new PriceCatalog(markdown, sword, easyMode), win);
+    }
+
+    /**
+     * Builds a shop around an existing price catalog, so that many shops can share one.
+     *
+     * @param prices The prices this shop buys and sells at.
+     */
+    public Shop(PriceCatalog prices, OutputSink win) {
+        this(prices, null, win);
+    }
+
+    /**
+     * Builds a shop whose prices move with a market that many shops can share (see Market).
+     *
+     * @param prices The prices this shop buys and sells at before the market moves them.
+     * @param market The market this shop's trades are counted in, or null to keep the catalog's prices.
+     */
+    public Shop(PriceCatalog prices, Market market, OutputSink win) {
+        this.prices = prices;
+        this.market = market;
+        customer = null; // customer is set in the enter method
+        window = win;
+    }
+
+    /**
+     * Method for entering the shop.
+     *
+     * @param hunter the Hunter entering the shop
+     * @param buyOrSell String that determines if hunter is "B"uying or "S"elling
+     * @param input Where the hunter's answers are read from
+     * @return a String to be used for printing in the latest news
+     */
+    public String enter(Hunter hunter, String buyOrSell, InputSource input) {
+        customer = hunter;
+        if (buyOrSell.equals("b")) {
+            window.addTextToWindow("\nWelcome to the shop! We have the finest wares in town.");
+            window.addTextToWindow("\nCurrently we have the following items:");
+            inventory();
+            window.addTextToWindow("What're you lookin' to buy? ");
+            Item item = Item.fromName(input.nextLowerCase(""));
+            int cost = item == null ? PriceCatalog.NOT_SOLD : checkMarketPrice(item, true);
+            if (cost < 0) {
+                window.addTextToWindow("\nWe ain't got none of those.");
+            } else {
+                if (item == Item.SWORD) {
+                    window.addTextToWindow("\n\nStrange, where'd that little thing come from... That sword's givin' me the creeps.",Colors.purple);
+                    window.addTextToWindow("\nI'm feelin' polite. Have it for free.\n");
+                }
+                if (customer.hasItemInKit(Item.SWORD)) {
+                    window.addTextToWindow("\n*The shopkeeper seems intimidated by your sword.*",Colors.red);
+                    window.addTextToWindow("\nYe' can have it fer free. It's on the house.");
+                    cost = 0;
+                }
+                window.addTextToWindow("It'll cost you " + cost + " gold. Buy it (y/n)? ");
+                String option = input.nextLowerCase("n");
+                if (option.equals("y")) {
+                    buyItem(item, cost); // at the price quoted, even if the market has moved since
+                }
+            }
+        } else {
+            window.addTextToWindow("\nWhat're you lookin' to sell? ");
+            window.addTextToWindow("You currently have the following items: ");
+            customer.getInventory();
+            Item item = Item.fromName(input.nextLowerCase(""));
+            int cost = item == null ? PriceCatalog.NOT_SOLD : checkMarketPrice(item, false);
+            if (cost < 0) {
+                window.addTextToWindow("\nWe don't want none of those.");
+            } else {
+                window.addTextToWindow("\nIt'll get you " + cost + " gold. Sell it (y/n)? ");
+                String option = input.nextLowerCase("n");
+                if (option.equals("y")) {
+                    sellItem(item, cost);
+                }
+            }
+        }
+        window.clear();
+        return "You left the shop";
+    }
+
+    /**
+     * A method that returns a string showing the items available in the shop
+     * (all shops sell the same items).
+     *
+     * @return the string representing the shop's items available for purchase and their prices.
+     */
+    public void inventory() {
+        window.addTextToWindow("\n");
+        window.addTextToWindow("Water: "); window.addTextToWindow(checkMarketPrice(Item.WATER, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Rope: "); window.addTextToWindow(checkMarketPrice(Item.ROPE, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Machete:"); window.addTextToWindow(checkMarketPrice(Item.MACHETE, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Shovel: "); window.addTextToWindow(checkMarketPrice(Item.SHOVEL, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Horse: "); window.addTextToWindow(checkMarketPrice(Item.HORSE, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Boots: "); window.addTextToWindow(checkMarketPrice(Item.BOOTS, true) + " gold\n",Colors.yellow);
+        window.addTextToWindow("Boat: "); window.addTextToWindow(checkMarketPrice(Item.BOAT, true) + " gold\n",Colors.yellow);
+        if (prices.isForSale(Item.SWORD)) {
+            window.addTextToWindow("Sword: ",Colors.red);window.addTextToWindow(checkMarketPrice(Item.SWORD, true) + " gold\n",Colors.yellow);
+        }
+    }
+
+    /**
+     * Buys or sells one item for a hunter without any of the prompts in enter().<p>
+     * This is how automated players (like the ones in the simulation) use the shop.
+     *
+     * @param hunter the Hunter trading with the shop
+     * @param item The item being traded.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return true if the trade went through.
+     */
+    public boolean trade(Hunter hunter, Item item, boolean isBuying) {
+        customer = hunter;
+        if (isBuying) {
+            return buyItem(item);
+        } else {
+            return sellItem(item);
+        }
+    }
+
+    /**
+     * A method that lets the customer (a Hunter) buy an item.
+     *
+     * @param item The item being bought.
+     * @return true if the item was bought.
+     */
+    public boolean buyItem(Item item) {
+        return buyItem(item, checkMarketPrice(item, true));
+    }
+
+    private boolean buyItem(Item item, int costOfItem) {
+        if (customer.buyItem(item, costOfItem)) {
+            if (market != null) {
+                market.recordPurchase(item);
+            }
+            if (window.isEnabled()) {
+                window.addTextToWindow("\nYe' got yerself a " + item.getName() + ". Come again soon.");
+            }
+            return true;
+        } else {
+            window.addTextToWindow("\nHmm, either you don't have enough gold or you've already got one of those!");
+            return false;
+        }
+    }
+
+    /**
+     * A pathway method that lets the Hunter sell an item.
+     *
+     * @param item The item being sold.
+     * @return true if the item was sold.
+     */
+    public boolean sellItem(Item item) {
+        return sellItem(item, checkMarketPrice(item, false));
+    }
+
+    private boolean sellItem(Item item, int buyBackPrice) {
+        if (customer.sellItem(item, buyBackPrice)) {
+            if (market != null) {
+                market.recordSale(item);
+            }
+            window.addTextToWindow("\nPleasure doin' business with you.");
+            return true;
+        } else {
+            window.addTextToWindow("\nStop stringin' me along!");
+            return false;
+        }
+    }
+
+    /**
+     * Determines and returns the cost of buying or selling an item: the catalog's price, moved by the market if the shop has one.
+     *
+     * @param item The item in question.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return The cost of buying or selling the item based on the isBuying parameter.
+     */
+    public int checkMarketPrice(Item item, boolean isBuying) {
+        int price = isBuying ? prices.getBuyPrice(item) : prices.getSellPrice(item);
+        return market == null ? price : market.adjust(item, price);
+    }
+
+    /**
+     * Determines and returns the cost of buying or selling an item by name.
+     *
+     * @param item The (lower case) name of the item in question.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return The cost of buying or selling the item, or PriceCatalog.NOT_SOLD if there is no such item.
+     */
+    public int checkMarketPrice(String item, boolean isBuying) {
+        Item found = Item.fromName(item);
+        if (found == null) {
+            return PriceCatalog.NOT_SOLD;
+        }
+        return checkMarketPrice(found, isBuying);
+    }
+
+    public PriceCatalog getPrices() {
+        return prices;
+    }
+}
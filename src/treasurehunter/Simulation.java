@@ -0,0 +1,282 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The Simulation class plays complete Treasure Hunter games with no window and no keyboard.<p>
+ * Every move comes from a Policy, and games are split into batches that run on a fork-join pool
+ * across all cores. The results of all the batches are merged into one SimulationStats.<p>
+ * Every batch gets its own split of the simulation's random stream, and every game gets its own seed
+ * drawn from that split, so a run is reproducible from its seed and workers never share a random source.<p>
+ * Within a game, the nth town the hunter reaches is rolled from the game's seed and n alone, the way World rolls
+ * its towns, and its fights and its dig take their own streams split off it (see Town.splitRolls()). So game n
+ * deals every policy the same towns in the same order and the same luck in each, whatever each policy does.
+ */
+
+public class Simulation {
+    // how many games one fork-join task plays before it stops splitting
+    private static final int GAMES_PER_TASK = 1024;
+    // how far apart the seeds of a game's towns are; not SplittableRandom's own step, or the stream of each town
+    // would be the stream of the one before it, one roll on
+    private static final long TOWN_SEED_STRIDE = 0xbf58476d1ce4e5b9L;
+
+    // instance variables
+    private GameMode mode;
+    private Economy economy;
+    private Policy policy;
+    private int maxTurns;
+    private long seed;
+    private ForkJoinPool pool;
+
+    /**
+     * @param mode The mode every game is played in, with its built-in economy.
+     * @param policy The policy making every move; it is shared by all the games.
+     * @param maxTurns The most turns a game may take before it is counted as a timeout.
+     * @param seed The seed the whole run is derived from.
+     */
+    public Simulation(GameMode mode, Policy policy, int maxTurns, long seed) {
+        this(Economy.of(mode), policy, maxTurns, seed);
+    }
+
+    /**
+     * Plays a mode with another economy, e.g. a tuned one from a Balance, or to try out a balance change
+     * (see BalanceTuner).
+     *
+     * @param economy The economy every game is played with, and through it the mode.
+     * @param policy The policy making every move; it is shared by all the games.
+     * @param maxTurns The most turns a game may take before it is counted as a timeout.
+     * @param seed The seed the whole run is derived from.
+     */
+    public Simulation(Economy economy, Policy policy, int maxTurns, long seed) {
+        mode = economy.getMode();
+        this.economy = economy;
+        this.policy = policy;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Plays a batch of games in parallel.
+     *
+     * @param games How many games to play.
+     * @return The merged results of every game.
+     */
+    public SimulationStats run(long games) {
+        return pool.invoke(new GameBatch(0, games, new SplittableRandom(seed)));
+    }
+
+    /**
+     * Plays a single game again from its own seed.
+     *
+     * @param gameSeed The seed the game was played with.
+     * @return The result of that one game.
+     */
+    public SimulationStats replayGame(long gameSeed) {
+        SimulationStats stats = new SimulationStats(maxTurns);
+        playGame(gameSeed, stats);
+        return stats;
+    }
+
+    /**
+     * Plays one game to the end and records how it finished.
+     *
+     * @param gameSeed The seed for every random roll in this game.
+     * @param stats Where to record the result.
+     */
+    private void playGame(long gameSeed, SimulationStats stats) {
+        OutputSink window = NullOutputSink.INSTANCE;
+        Hunter hunter = new Hunter("bot", economy.getStartingGold(), mode.getInventoryCapacity(), window);
+        int towns = 0;
+        Town town = newTown(gameSeed, towns, window);
+        town.hunterArrives(hunter);
+        // the policy sees the game through these for the whole game; they follow the hunter from town to town
+        ReadOnlyHunter hunterView = new ReadOnlyHunter(hunter);
+        ReadOnlyTown townView = new ReadOnlyTown(town);
+
+        for (int turn = 1; turn <= maxTurns; turn++) {
+            String choice = policy.nextMove(hunterView, townView);
+            if (choice.equals("b") || choice.equals("s")) {
+                boolean isBuying = choice.equals("b");
+                Item item = policy.chooseItem(hunterView, townView, isBuying);
+                if (item != null) {
+                    town.tradeAtShop(item, isBuying);
+                }
+            } else if (choice.equals("m")) {
+                if (town.leaveTown()) {
+                    town = newTown(gameSeed, ++towns, window);
+                    town.hunterArrives(hunter);
+                    townView.town = town;
+                }
+            } else if (choice.equals("l")) {
+                town.lookForTrouble();
+                if (town.isHunterBroke()) {
+                    stats.recordLoss(hunter.getGold());
+                    return;
+                }
+            } else if (choice.equals("h")) {
+                town.huntForTreasure();
+                if (hunter.treasuresFull()) {
+                    stats.recordWin(turn);
+                    return;
+                }
+            } else if (choice.equals("d")) {
+                town.digForGold();
+            } else if (choice.equals("x")) {
+                break;
+            }
+        }
+        stats.recordTimeout();
+    }
+
+    /**
+     * Builds a town the same way TreasureHunter.enterTown() does, but from a random source of its own.
+     *
+     * @param gameSeed The seed the game was played with.
+     * @param index How many towns the hunter has left before this one.
+     */
+    private Town newTown(long gameSeed, int index, OutputSink window) {
+        // every shop in every game charges the same, so they all share the economy's catalog
+        Shop shop = new Shop(economy.getPrices(), window);
+        Town town = new Town(shop, economy.getToughness(), mode.isEasy(),
+                new SplittableRandom(gameSeed + index * TOWN_SEED_STRIDE), window);
+        town.splitRolls();
+        return town;
+    }
+
+    /**
+     * What a policy sees of the hunter. Only Simulation can reach the hunter behind it.
+     */
+    private static final class ReadOnlyHunter implements HunterView {
+        private Hunter hunter;
+
+        ReadOnlyHunter(Hunter hunter) {
+            this.hunter = hunter;
+        }
+
+        public String getHunterName() {
+            return hunter.getHunterName();
+        }
+
+        public int getGold() {
+            return hunter.getGold();
+        }
+
+        public int getKit() {
+            return hunter.getKit();
+        }
+
+        public int getTreasures() {
+            return hunter.getTreasures();
+        }
+
+        public int getKitCapacity() {
+            return hunter.getKitCapacity();
+        }
+
+        public boolean hasItemInKit(Item item) {
+            return hunter.hasItemInKit(item);
+        }
+
+        public boolean treasuresFull() {
+            return hunter.treasuresFull();
+        }
+    }
+
+    /**
+     * What a policy sees of the town the hunter is in. Only Simulation can reach the town behind it,
+     * and moves it on to the next town when the hunter leaves.
+     */
+    private static final class ReadOnlyTown implements TownView {
+        private Town town;
+
+        ReadOnlyTown(Town town) {
+            this.town = town;
+        }
+
+        public Terrain getTerrain() {
+            return town.getTerrain();
+        }
+
+        public boolean isToughTown() {
+            return town.isToughTown();
+        }
+
+        public boolean isSearched() {
+            return town.isSearched();
+        }
+
+        public boolean isDug() {
+            return town.isDug();
+        }
+
+        public boolean isForSale(Item item) {
+            return town.isForSale(item);
+        }
+
+        public int getPrice(Item item, boolean isBuying) {
+            return town.getPrice(item, isBuying);
+        }
+    }
+
+    /**
+     * A range of games that splits itself in half until it is small enough to play directly.
+     */
+    private class GameBatch extends RecursiveTask<SimulationStats> {
+        private long from;
+        private long to;
+        private SplittableRandom random;
+
+        GameBatch(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        protected SimulationStats compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationStats stats = new SimulationStats(maxTurns);
+                for (long i = from; i < to; i++) {
+                    playGame(random.nextLong(), stats);
+                }
+                return stats;
+            }
+            long mid = (from + to) >>> 1;
+            // split before forking so each half's stream doesn't depend on scheduling
+            GameBatch left = new GameBatch(from, mid, random.split());
+            left.fork();
+            SimulationStats right = new GameBatch(mid, to, random).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line.<p>
+     * Arguments (all optional): number of games, mode (e/n/h/s), max turns per game, seed.
+     * --balance=FILE plays the mode's economy from a balance BalanceTuner wrote instead of the built-in one.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        Balance balance = Balance.fromOption(rest);
+        long games = rest.size() > 0 ? Long.parseLong(rest.get(0)) : 1_000_000;
+        GameMode mode = GameMode.fromChoice(rest.size() > 1 ? rest.get(1).toLowerCase() : "n");
+        int maxTurns = rest.size() > 2 ? Integer.parseInt(rest.get(2)) : 500;
+        long seed = rest.size() > 3 ? Long.parseLong(rest.get(3)) : new SplittableRandom().nextLong();
+
+        Economy economy = balance.getEconomy(mode);
+        Simulation simulation = new Simulation(economy, new GreedyPolicy(), maxTurns, seed);
+        if (balance.getFile() != null) {
+            System.out.println("Using the balance in " + balance.getFile() + ": " + economy);
+        }
+        System.out.println("Simulating " + mode + " mode on " + ForkJoinPool.getCommonPoolParallelism() + " workers with seed " + seed + "...");
+        long start = System.nanoTime();
+        SimulationStats stats = simulation.run(games);
+        stats.report(System.out, System.nanoTime() - start);
+    }
+}
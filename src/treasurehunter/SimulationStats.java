@@ -0,0 +1,196 @@
+package treasurehunter;
+
+import java.io.PrintStream;
+
+/**
+ * SimulationStats tallies the outcomes of a batch of headless games.<p>
+ * Each worker fills in its own SimulationStats and the batches are merged at the end,
+ * so nothing here needs to be thread safe.
+ */
+
+public class SimulationStats {
+    // gold at death is bucketed one bucket per gold piece, with everything above the last bucket lumped together
+    private static final int GOLD_BUCKETS = 64;
+
+    // instance variables
+    private long games;
+    private long wins;
+    private long losses;
+    private long timeouts;
+    private long[] turnsToWin;
+    private long[] goldAtDeath;
+
+    /**
+     * @param maxTurns The most turns a single game is allowed to take.
+     */
+    public SimulationStats(int maxTurns) {
+        turnsToWin = new long[maxTurns + 1];
+        goldAtDeath = new long[GOLD_BUCKETS];
+    }
+
+    public void recordWin(int turns) {
+        games++;
+        wins++;
+        turnsToWin[turns]++;
+    }
+
+    public void recordLoss(int gold) {
+        games++;
+        losses++;
+        goldAtDeath[Math.min(gold, GOLD_BUCKETS - 1)]++;
+    }
+
+    /**
+     * Records a game that ran out of turns or where the player gave up.
+     */
+    public void recordTimeout() {
+        games++;
+        timeouts++;
+    }
+
+    /**
+     * Adds another batch's results into this one.
+     *
+     * @param other The batch to add.
+     * @return this, for chaining.
+     */
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        wins += other.wins;
+        losses += other.losses;
+        timeouts += other.timeouts;
+        for (int i = 0; i < turnsToWin.length; i++) {
+            turnsToWin[i] += other.turnsToWin[i];
+        }
+        for (int i = 0; i < goldAtDeath.length; i++) {
+            goldAtDeath[i] += other.goldAtDeath[i];
+        }
+        return this;
+    }
+
+    // accessors
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public double getMeanTurnsToWin() {
+        return mean(turnsToWin, wins);
+    }
+
+    /**
+     * @return the sample standard deviation of the turns winning games took.
+     */
+    public double getTurnsToWinStdDev() {
+        if (wins < 2) {
+            return 0;
+        }
+        double mean = getMeanTurnsToWin();
+        double squares = 0;
+        for (int i = 0; i < turnsToWin.length; i++) {
+            squares += (i - mean) * (i - mean) * turnsToWin[i];
+        }
+        return Math.sqrt(squares / (wins - 1));
+    }
+
+    /**
+     * @param z How many standard deviations wide the interval is, e.g. 1.96 for 95%.
+     * @return the low end of the Wilson score interval on the win rate.
+     */
+    public double getWinRateLow(double z) {
+        return wilsonCenter(z) - wilsonSpread(z);
+    }
+
+    /**
+     * @param z How many standard deviations wide the interval is, e.g. 1.96 for 95%.
+     * @return the high end of the Wilson score interval on the win rate.
+     */
+    public double getWinRateHigh(double z) {
+        return wilsonCenter(z) + wilsonSpread(z);
+    }
+
+    public double getMeanGoldAtDeath() {
+        return mean(goldAtDeath, losses);
+    }
+
+    /**
+     * @param fraction A fraction between 0 and 1 (0.5 is the median).
+     * @return The fewest turns that the given fraction of winning games finished within.
+     */
+    public int getTurnsToWinPercentile(double fraction) {
+        return percentile(turnsToWin, wins, fraction);
+    }
+
+    /**
+     * @param fraction A fraction between 0 and 1 (0.5 is the median).
+     * @return The gold that the given fraction of losing players had at most when they died.
+     */
+    public int getGoldAtDeathPercentile(double fraction) {
+        return percentile(goldAtDeath, losses, fraction);
+    }
+
+    /**
+     * Prints a summary of the batch.
+     *
+     * @param out Where to print.
+     * @param elapsedNanos How long the batch took to play.
+     */
+    public void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("games:          %,d in %.2f s (%,.0f games/s)%n", games, seconds, games / seconds);
+        out.printf("win rate:       %.2f%% (%,d wins, %,d losses, %,d timeouts)%n", getWinRate() * 100, wins, losses, timeouts);
+        out.printf("turns to win:   mean %.1f, p50 %d, p90 %d, p99 %d%n", getMeanTurnsToWin(),
+                getTurnsToWinPercentile(0.5), getTurnsToWinPercentile(0.9), getTurnsToWinPercentile(0.99));
+        out.printf("gold at death:  mean %.1f, p50 %d, p90 %d%n", getMeanGoldAtDeath(),
+                getGoldAtDeathPercentile(0.5), getGoldAtDeathPercentile(0.9));
+    }
+
+    private double wilsonCenter(double z) {
+        double n = games;
+        return (getWinRate() + z * z / (2 * n)) / (1 + z * z / n);
+    }
+
+    private double wilsonSpread(double z) {
+        double n = games;
+        double p = getWinRate();
+        return z / (1 + z * z / n) * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n));
+    }
+
+    private static double mean(long[] histogram, long count) {
+        if (count == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            sum += (double) i * histogram[i];
+        }
+        return sum / count;
+    }
+
+    private static int percentile(long[] histogram, long count, double fraction) {
+        long target = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
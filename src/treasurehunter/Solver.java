@@ -0,0 +1,423 @@
+package treasurehunter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The Solver works out exactly how likely a perfect player is to win within a given number of turns,
+ * and which move gets them there, instead of estimating it by simulation.<p>
+ * Everything that matters to the rest of a game fits in one long: the hunter's gold, kit and treasures, the town's
+ * terrain, treasure and toughness, whether it has been searched and dug, and how many turns are left. The value of
+ * a state is the best, over every move, of the chance-weighted values of the states the move can lead to,
+ * using the same odds as Town and the same prices as the Shop. Values are memoized in a ConcurrentLongDoubleMap.<p>
+ * Gold above what could possibly be spent in the turns left changes nothing, so it is capped there, which keeps
+ * the state space finite without changing any value. Likewise a town whose treasure is of no more use is stored as
+ * if it had been searched, and the moment between leaving one town and rolling the next is a state of its own,
+ * so every town a hunter can leave shares the same average over the towns they can arrive in. States with one turn
+ * left are worked out on the spot rather than memoized.<p>
+ * The first few turns are split into fork-join tasks, one per state they can reach, and solved across all cores;
+ * the tasks share the memo, so a state reached from two branches is normally solved once.
+ */
+
+public class Solver {
+    public static final int MAX_TURNS = 200;
+
+    // how the state is packed into a long, from the lowest bit up
+    private static final int GOLD_SHIFT = 0;
+    private static final int KIT_SHIFT = 12;
+    private static final int TREASURES_SHIFT = 20;
+    private static final int TERRAIN_SHIFT = 23;
+    private static final int TOWN_TREASURE_SHIFT = 26;
+    private static final int TOUGH_SHIFT = 28;
+    private static final int SEARCHED_SHIFT = 29;
+    private static final int DUG_SHIFT = 30;
+    private static final int TURNS_SHIFT = 31;
+
+    // the terrain of the state between leaving a town and arriving in the next one
+    private static final int NEW_TOWN = 7;
+    // how many turns at the start are split into parallel tasks
+    private static final int PARALLEL_TURNS = 3;
+
+    // the moves, as returned by bestMove(); buying and selling add the item's ordinal
+    private static final int WAIT = 0;
+    private static final int HUNT = 1;
+    private static final int DIG = 2;
+    private static final int TROUBLE = 3;
+    private static final int MOVE = 4;
+    private static final int BUY = 16;
+    private static final int SELL = 32;
+
+    private static final Item[] ITEMS = Item.values();
+    private static final Treasure[] TREASURES = Treasure.values();
+
+    // instance variables
+    private GameMode mode;
+    private int turns;
+    private int[] buyPrices;
+    private int[] sellPrices;
+    private int goldPerTurn;
+    private double losingChanceMild;
+    private double losingChanceTough;
+    private ConcurrentLongDoubleMap memo;
+    private ForkJoinPool pool;
+    private Lookup solve = this::value;
+
+    /**
+     * What a move is worth is worked out from what its outcomes are worth; this is how an outcome's worth is found.
+     */
+    private interface Lookup {
+        double value(long state);
+    }
+
+    /**
+     * @param mode The mode the game is played in.
+     * @param turns How many turns the player has to win; at most MAX_TURNS.
+     * @param capacity The most states the memo can hold.
+     */
+    public Solver(GameMode mode, int turns, int capacity) {
+        if (turns < 1 || turns > MAX_TURNS) {
+            throw new IllegalArgumentException("turns must be between 1 and " + MAX_TURNS);
+        }
+        this.mode = mode;
+        this.turns = turns;
+        PriceCatalog prices = mode.getPrices();
+        buyPrices = new int[ITEMS.length];
+        sellPrices = new int[ITEMS.length];
+        goldPerTurn = Town.MAX_BRAWL_GOLD;
+        for (Item item : ITEMS) {
+            buyPrices[item.ordinal()] = prices.getBuyPrice(item);
+            sellPrices[item.ordinal()] = prices.getSellPrice(item);
+            goldPerTurn = Math.max(goldPerTurn, prices.getBuyPrice(item));
+        }
+        // a fight is lost with the same odds as it is found, except in easy mode, where the odds are
+        // rolled from 1% to EASY_MAX_LOSING_PERCENT% for each fight; on average that is the middle of the range
+        double easyOdds = (Town.EASY_MAX_LOSING_PERCENT + 1) / 200.0;
+        losingChanceMild = mode.isEasy() ? easyOdds : Town.MILD_TOWN_ODDS;
+        losingChanceTough = mode.isEasy() ? easyOdds : Town.TOUGH_TOWN_ODDS;
+        memo = new ConcurrentLongDoubleMap(capacity, KIT_SHIFT); // fights and digs look up runs of gold amounts
+        pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Solves the game from the start, before the first town has been rolled.
+     *
+     * @return The chance that a perfect player wins within the solver's number of turns.
+     * @throws IllegalStateException if there are more states to memoize than the solver's capacity.
+     */
+    public double solve() {
+        pool.invoke(new SolveTask(pack(mode.getStartingGold(), 0, 0, NEW_TOWN, 0, false, false, false, turns)));
+        return value(pack(mode.getStartingGold(), 0, 0, NEW_TOWN, 0, false, false, false, turns));
+    }
+
+    /**
+     * Finds the best move for a hunter in a town.
+     *
+     * @param hunter The hunter.
+     * @param town The town they are in.
+     * @param turnsLeft How many turns they have left to win, counting this one.
+     * @return The move as the player would type it: "h", "d", "l", "m", "e" (when nothing beats waiting a turn),
+     *         or "b" or "s" followed by a space and the item.
+     */
+    public String bestMove(Hunter hunter, Town town, int turnsLeft) {
+        int terrain = 0;
+        while (Town.TERRAINS[terrain].getNeededItem() != town.getTerrain().getNeededItem()) {
+            terrain++;
+        }
+        long state = pack(hunter.getGold(), hunter.getKit(), hunter.getTreasures(), terrain, town.getTreasure().ordinal(),
+                town.isToughTown(), town.isSearched(), town.isDug(), Math.min(turnsLeft, turns));
+        int[] best = new int[1];
+        evaluate(state, solve, best);
+        int move = best[0];
+        if (move >= SELL) {
+            return "s " + ITEMS[move - SELL];
+        } else if (move >= BUY) {
+            return "b " + ITEMS[move - BUY];
+        } else if (move == HUNT) {
+            return "h";
+        } else if (move == DIG) {
+            return "d";
+        } else if (move == TROUBLE) {
+            return "l";
+        } else if (move == MOVE) {
+            return "m";
+        }
+        return "e";
+    }
+
+    /**
+     * @return how many states have been solved.
+     */
+    public long getStates() {
+        return memo.size();
+    }
+
+    /**
+     * @return how many bytes the memo takes up.
+     */
+    public long getMemoBytes() {
+        return memo.footprint();
+    }
+
+    /**
+     * @return the chance of winning from the given state with perfect play.
+     */
+    private double value(long state) {
+        if (turnsOf(state) == 0) {
+            return 0;
+        }
+        if (turnsOf(state) == 1) {
+            return lastTurnValue(state); // most states are down here, and these are quicker to work out than to look up
+        }
+        double known = memo.get(state);
+        if (!Double.isNaN(known)) {
+            return known;
+        }
+        double value = outcomes(state, solve);
+        memo.put(state, value);
+        return value;
+    }
+
+    /**
+     * @return the chance of winning from a state with one turn left, which only a hunt for the last treasure can do.
+     */
+    private double lastTurnValue(long state) {
+        int treasures = (int) (state >>> TREASURES_SHIFT) & 0x7;
+        int terrain = (int) (state >>> TERRAIN_SHIFT) & 0x7;
+        if (terrain == NEW_TOWN) {
+            double value = 0;
+            for (Treasure treasure : TREASURES) {
+                if (treasure.isCollectible() && Integer.bitCount(treasures | treasure.getBit()) >= Hunter.TREASURE_CAPACITY) {
+                    value += 1.0 / TREASURES.length;
+                }
+            }
+            return value;
+        }
+        Treasure treasure = TREASURES[(int) (state >>> TOWN_TREASURE_SHIFT) & 0x3];
+        boolean searched = (state >>> SEARCHED_SHIFT & 1) != 0;
+        if (!searched && Integer.bitCount(treasures | treasure.getBit()) >= Hunter.TREASURE_CAPACITY) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @return what a state is worth, given what its outcomes are worth.
+     */
+    private double outcomes(long state, Lookup outcomes) {
+        if (((int) (state >>> TERRAIN_SHIFT) & 0x7) == NEW_TOWN) {
+            return newTownValue(state, outcomes);
+        }
+        return evaluate(state, outcomes, null);
+    }
+
+    /**
+     * Works out what the best move from a state is worth.
+     *
+     * @param state The state, with at least one turn left.
+     * @param outcomes How to find what each outcome of a move is worth.
+     * @param bestMove If not null, the best move is put in its first element.
+     * @return The best move's worth.
+     */
+    private double evaluate(long state, Lookup outcomes, int[] bestMove) {
+        int gold = (int) (state >>> GOLD_SHIFT) & 0xfff;
+        int kit = (int) (state >>> KIT_SHIFT) & 0xff;
+        int treasures = (int) (state >>> TREASURES_SHIFT) & 0x7;
+        int terrain = (int) (state >>> TERRAIN_SHIFT) & 0x7;
+        int townTreasure = (int) (state >>> TOWN_TREASURE_SHIFT) & 0x3;
+        boolean tough = (state >>> TOUGH_SHIFT & 1) != 0;
+        boolean searched = (state >>> SEARCHED_SHIFT & 1) != 0;
+        boolean dug = (state >>> DUG_SHIFT & 1) != 0;
+        int left = turnsOf(state) - 1; // the turns left once this move is made
+
+        // waiting a turn (e.g. exploring) is always possible
+        double best = outcomes.value(pack(gold, kit, treasures, terrain, townTreasure, tough, searched, dug, left));
+        int move = WAIT;
+
+        if (!searched) {
+            Treasure treasure = TREASURES[townTreasure];
+            int found = treasure.isCollectible() ? treasures | treasure.getBit() : treasures;
+            double value;
+            if (Integer.bitCount(found) >= Hunter.TREASURE_CAPACITY) {
+                value = 1;
+            } else {
+                value = outcomes.value(pack(gold, kit, found, terrain, townTreasure, tough, true, dug, left));
+            }
+            if (value > best) {
+                best = value;
+                move = HUNT;
+            }
+        }
+
+        if (!dug && (kit & Item.SHOVEL.getBit()) != 0) {
+            double value = (1 - Town.DIG_CHANCE) * outcomes.value(pack(gold, kit, treasures, terrain, townTreasure, tough, searched, true, left));
+            for (int found = 1; found <= Town.MAX_DIG_GOLD; found++) {
+                value += Town.DIG_CHANCE / Town.MAX_DIG_GOLD
+                        * outcomes.value(pack(gold + found, kit, treasures, terrain, townTreasure, tough, searched, true, left));
+            }
+            if (value > best) {
+                best = value;
+                move = DIG;
+            }
+        }
+
+        // looking for trouble: a fight is found with the town's odds, then won or lost for 1 to MAX_BRAWL_GOLD gold
+        double fightOdds = tough ? Town.TOUGH_TOWN_ODDS : Town.MILD_TOWN_ODDS;
+        double losingChance = (kit & Item.SWORD.getBit()) != 0 ? 0 : (tough ? losingChanceTough : losingChanceMild);
+        double fight = 0;
+        for (int stake = 1; stake <= Town.MAX_BRAWL_GOLD; stake++) {
+            double won = outcomes.value(pack(gold + stake, kit, treasures, terrain, townTreasure, tough, searched, dug, left));
+            double lost = 0; // the hunter can't pay up, and the game is over
+            if (losingChance > 0 && gold >= stake) {
+                lost = outcomes.value(pack(gold - stake, kit, treasures, terrain, townTreasure, tough, searched, dug, left));
+            }
+            fight += ((1 - losingChance) * won + losingChance * lost) / Town.MAX_BRAWL_GOLD;
+        }
+        double trouble = (1 - fightOdds) * outcomes.value(pack(gold, kit, treasures, terrain, townTreasure, tough, searched, dug, left))
+                + fightOdds * fight;
+        if (trouble > best) {
+            best = trouble;
+            move = TROUBLE;
+        }
+
+        int needed = Town.TERRAINS[terrain].getNeededItem().getBit();
+        if ((kit & needed) != 0) {
+            double breakChance = mode.isEasy() ? 0 : Town.ITEM_BREAK_CHANCE;
+            double value = (1 - breakChance) * outcomes.value(pack(gold, kit, treasures, NEW_TOWN, 0, false, false, false, left));
+            if (breakChance > 0) {
+                value += breakChance * outcomes.value(pack(gold, kit & ~needed, treasures, NEW_TOWN, 0, false, false, false, left));
+            }
+            if (value > best) {
+                best = value;
+                move = MOVE;
+            }
+        }
+
+        boolean kitFull = Integer.bitCount(kit) >= mode.getInventoryCapacity();
+        boolean hasSword = (kit & Item.SWORD.getBit()) != 0;
+        for (Item item : ITEMS) {
+            int bit = item.getBit();
+            int price = hasSword ? 0 : buyPrices[item.ordinal()];
+            if ((kit & bit) == 0) {
+                if (!kitFull && buyPrices[item.ordinal()] != PriceCatalog.NOT_SOLD && price >= 0 && gold >= price) {
+                    double value = outcomes.value(pack(gold - price, kit | bit, treasures, terrain, townTreasure, tough, searched, dug, left));
+                    if (value > best) {
+                        best = value;
+                        move = BUY + item.ordinal();
+                    }
+                }
+            } else if (sellPrices[item.ordinal()] > 0) {
+                double value = outcomes.value(pack(gold + sellPrices[item.ordinal()], kit & ~bit, treasures, terrain, townTreasure, tough, searched, dug, left));
+                if (value > best) {
+                    best = value;
+                    move = SELL + item.ordinal();
+                }
+            }
+        }
+
+        if (bestMove != null) {
+            bestMove[0] = move;
+        }
+        return best;
+    }
+
+    /**
+     * @return what arriving in a freshly rolled town is worth, averaged over every town that can be rolled.
+     */
+    private double newTownValue(long state, Lookup outcomes) {
+        int gold = (int) (state >>> GOLD_SHIFT) & 0xfff;
+        int kit = (int) (state >>> KIT_SHIFT) & 0xff;
+        int treasures = (int) (state >>> TREASURES_SHIFT) & 0x7;
+        int left = turnsOf(state);
+        double toughness = mode.getToughness();
+        double chance = 1.0 / (Town.TERRAINS.length * TREASURES.length);
+        double value = 0;
+        for (int terrain = 0; terrain < Town.TERRAINS.length; terrain++) {
+            for (int treasure = 0; treasure < TREASURES.length; treasure++) {
+                value += chance * (toughness * outcomes.value(pack(gold, kit, treasures, terrain, treasure, true, false, false, left))
+                        + (1 - toughness) * outcomes.value(pack(gold, kit, treasures, terrain, treasure, false, false, false, left)));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Packs a state into a long, capping the gold at the most that could be spent in the turns left
+     * and marking a town as searched if its treasure is of no use.
+     */
+    private long pack(int gold, int kit, int treasures, int terrain, int townTreasure, boolean tough, boolean searched, boolean dug, int left) {
+        long capped = Math.min(gold, goldPerTurn * left);
+        Treasure treasure = TREASURES[townTreasure];
+        if (!treasure.isCollectible() || (treasures & treasure.getBit()) != 0) {
+            searched = true;
+        }
+        if (searched) {
+            townTreasure = 0; // there's nothing left to find, so it doesn't matter what was here
+        }
+        return capped << GOLD_SHIFT
+                | (long) kit << KIT_SHIFT
+                | (long) treasures << TREASURES_SHIFT
+                | (long) terrain << TERRAIN_SHIFT
+                | (long) townTreasure << TOWN_TREASURE_SHIFT
+                | (tough ? 1L : 0L) << TOUGH_SHIFT
+                | (searched ? 1L : 0L) << SEARCHED_SHIFT
+                | (dug ? 1L : 0L) << DUG_SHIFT
+                | (long) left << TURNS_SHIFT;
+    }
+
+    private static int turnsOf(long state) {
+        return (int) (state >>> TURNS_SHIFT) & 0xff;
+    }
+
+    /**
+     * Solves one state, first splitting the states it can lead to into tasks of their own while there are
+     * enough turns left for that to be worth it.
+     */
+    private class SolveTask extends RecursiveAction {
+        private long state;
+
+        SolveTask(long state) {
+            this.state = state;
+        }
+
+        protected void compute() {
+            if (turnsOf(state) == 0 || !Double.isNaN(memo.get(state))) {
+                return;
+            }
+            if (turnsOf(state) > turns - PARALLEL_TURNS) {
+                List<SolveTask> children = new ArrayList<>();
+                outcomes(state, outcome -> {
+                    children.add(new SolveTask(outcome));
+                    return 0;
+                });
+                invokeAll(children);
+            }
+            value(state);
+        }
+    }
+
+    /**
+     * Solves a game from the command line and prints how long it took and how much memory it needed.<p>
+     * Arguments (all optional): number of turns (default 10), mode (e/n/h/s, default n), the most states to memoize
+     * (default 8388608, enough for 12 turns of normal mode in a 256 MB memo).
+     */
+    public static void main(String[] args) {
+        int turns = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        GameMode mode = GameMode.fromChoice(args.length > 1 ? args[1].toLowerCase() : "n");
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 23;
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.println("Solving " + mode + " mode for " + turns + " turns on " + ForkJoinPool.getCommonPoolParallelism() + " workers...");
+        long start = System.nanoTime();
+        Solver solver = new Solver(mode, turns, capacity);
+        double win = solver.solve();
+        long elapsed = System.nanoTime() - start;
+        System.gc();
+        System.out.printf("win chance:     %.4f%% with perfect play%n", win * 100);
+        System.out.printf("states:         %,d%n", solver.getStates());
+        System.out.printf("solve time:     %.2f s (%,.0f states/s)%n", elapsed / 1e9, solver.getStates() / (elapsed / 1e9));
+        System.out.printf("memo:           %,d MB%n", solver.getMemoBytes() >> 20);
+        System.out.printf("heap in use:    %,d MB%n", (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
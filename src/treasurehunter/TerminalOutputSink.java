@@ -0,0 +1,70 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The TerminalOutputSink shows the game in a terminal, for machines with no display.<p>
+ * Colors become ANSI escape codes, sent only when the color actually changes, and clear() clears the terminal.
+ * Like every TextOutputSink, text is buffered until flush(), which the game calls before it waits for the player
+ * (see FlushingInput), so a whole turn reaches the terminal in one write.
+ */
+
+public class TerminalOutputSink extends TextOutputSink {
+    private static final String CLEAR_SCREEN = "\u001B[H\u001B[2J";
+
+    // instance variables
+    private String color;
+    private boolean cleared; // nothing has been written since the terminal was last cleared
+
+    /**
+     * Writes to the program's standard output, without going through System.out's own buffering and flushing.
+     */
+    public TerminalOutputSink() {
+        this(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param out Where the text and escape codes are written.
+     */
+    public TerminalOutputSink(Writer out) {
+        super(out);
+        color = Colors.RESET;
+    }
+
+    public void addTextToWindow(String text, Color color) {
+        String code = Colors.ansi(color);
+        if (!code.equals(this.color)) {
+            write(code);
+            this.color = code;
+        }
+        write(text);
+        cleared = false;
+    }
+
+    public void addTextToWindow(String text) {
+        addTextToWindow(text, Color.black);
+    }
+
+    public void clear() {
+        if (!cleared) {
+            write(CLEAR_SCREEN);
+            cleared = true;
+        }
+    }
+
+    /**
+     * Sends everything so far, leaving the terminal in its own color for whatever the player types next.
+     */
+    public void flush() {
+        if (!color.equals(Colors.RESET)) {
+            write(Colors.RESET);
+            color = Colors.RESET;
+        }
+        super.flush();
+    }
+}
@@ -1,3 +1,5 @@
+package treasurehunter;
+
 /**
  * The Terrain class is designed to represent the zones between the towns in the Treasure Hunter game.
  * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
@@ -6,7 +8,7 @@
 public class Terrain {
     // instance variables
     private String terrainName;
-    private String neededItem;
+    private Item neededItem;
 
     /**
      * Sets the class member variables
@@ -15,8 +17,18 @@ public class Terrain {
      * @param item The item needed in order to cross the zone.
      */
     public Terrain(String name, String item) {
+        this(name, Item.fromName(item.toLowerCase()));
+    }
+
+    /**
+     * Sets the class member variables
+     *
+     * @param name The name of the zone.
+     * @param item The item needed in order to cross the zone.
+     */
+    public Terrain(String name, Item item) {
         terrainName = name;
-        neededItem = item.toLowerCase();
+        neededItem = item;
     }
 
     // accessors
@@ -24,7 +36,7 @@ public class Terrain {
         return terrainName;
     }
 
-    public String getNeededItem() {
+    public Item getNeededItem() {
         return neededItem;
     }
 
@@ -32,14 +44,21 @@ public class Terrain {
      * Guards against a hunter crossing the zone without the proper item.
      * Searches the hunter's inventory for the proper item and determines whether the hunter can cross.
      *
-     * @param hunter The Hunter object trying to cross the terrain.
+     * @param hunter The Hunter trying to cross the terrain.
      * @return true if the Hunter has the proper item.
      */
     public boolean canCrossTerrain(Hunter hunter) {
-        if (hunter.hasItemInKit(neededItem)) {
-            return true;
-        }
-        return false;
+        return hunter.hasItemInKit(neededItem);
+    }
+
+    /**
+     * Tells an automated player (see Policy) whether the hunter could cross the zone.
+     *
+     * @param hunter What the player can see of the hunter.
+     * @return true if the hunter has the proper item.
+     */
+    public boolean canCrossTerrain(HunterView hunter) {
+        return hunter.hasItemInKit(neededItem);
     }
 
     /**
@@ -0,0 +1,59 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * The TextOutputSink writes the game's text as plain text, e.g. to a player connected to the GameServer.<p>
+ * Text is buffered and only sent when flush() is called, so a whole turn goes out in one write instead of one per message.
+ * Colors are dropped. It belongs to a single game and is not thread safe.
+ */
+
+public class TextOutputSink implements OutputSink {
+    // instance variables
+    private PrintWriter out;
+
+    /**
+     * @param out Where the text is written.
+     */
+    public TextOutputSink(Writer out) {
+        this.out = new PrintWriter(new BufferedWriter(out));
+    }
+
+    public void addTextToWindow(String text, Color color) {
+        write(text);
+    }
+
+    public void addTextToWindow(String text) {
+        write(text);
+    }
+
+    /**
+     * Text can't be taken back once it is sent, so a clear just starts a new line.
+     */
+    public void clear() {
+        write("\n");
+    }
+
+    /**
+     * Adds text to what will be sent on the next flush().
+     *
+     * @param text The text, exactly as it should be sent.
+     */
+    protected void write(String text) {
+        out.write(text);
+    }
+
+    public void flush() {
+        out.flush();
+    }
+
+    /**
+     * @return true if writing has failed, e.g. because the other end hung up.
+     */
+    public boolean hasFailed() {
+        return out.checkError();
+    }
+}
@@ -0,0 +1,152 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Tournament pits automated players (see Policy) against each other on the same worlds.<p>
+ * Every policy plays the same number of games with the same seed. A Simulation rolls the nth town of a game from
+ * the game's seed and n alone, with the fights and dig in it on streams of their own, so game n deals every policy
+ * the same towns in the same order, and the same fights and dig in each, whatever moves it makes; differences
+ * between the policies are down to the policies rather than the dice. Each policy's games are played in parallel on every core (see Simulation),
+ * one policy after another so each one's games per second are measured on the whole machine.<p>
+ * Every policy is reported with its win rate and mean turns to win, each with a 95% confidence interval.
+ */
+
+public class Tournament {
+    // z for a two-sided 95% interval
+    private static final double Z = 1.96;
+
+    // instance variables
+    private Economy economy;
+    private int maxTurns;
+    private long seed;
+
+    /**
+     * @param mode The mode every game is played in, with its built-in economy.
+     * @param maxTurns The most turns a game may take before it is counted as a timeout.
+     * @param seed The seed every policy's games are played with.
+     */
+    public Tournament(GameMode mode, int maxTurns, long seed) {
+        this(Economy.of(mode), maxTurns, seed);
+    }
+
+    /**
+     * @param economy The economy every game is played with, and through it the mode.
+     * @param maxTurns The most turns a game may take before it is counted as a timeout.
+     * @param seed The seed every policy's games are played with.
+     */
+    public Tournament(Economy economy, int maxTurns, long seed) {
+        this.economy = economy;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every policy in turn.
+     *
+     * @param policies The policies taking part.
+     * @param games How many games each policy plays.
+     * @return Each policy's results, in the order given.
+     */
+    public List<Entry> play(List<Policy> policies, long games) {
+        List<Entry> entries = new ArrayList<>(policies.size());
+        for (Policy policy : policies) {
+            long start = System.nanoTime();
+            SimulationStats stats = new Simulation(economy, policy, maxTurns, seed).run(games);
+            entries.add(new Entry(policy, stats, System.nanoTime() - start));
+        }
+        return entries;
+    }
+
+    /**
+     * How one policy did in a tournament.
+     */
+    public static class Entry {
+        // instance variables
+        private Policy policy;
+        private SimulationStats stats;
+        private long elapsedNanos;
+
+        Entry(Policy policy, SimulationStats stats, long elapsedNanos) {
+            this.policy = policy;
+            this.stats = stats;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return half the width of the 95% confidence interval on the mean turns to win.
+         */
+        public double getTurnsToWinHalfWidth() {
+            return stats.getWins() == 0 ? 0 : Z * stats.getTurnsToWinStdDev() / Math.sqrt(stats.getWins());
+        }
+
+        public double getGamesPerSecond() {
+            return stats.getGames() / (elapsedNanos / 1e9);
+        }
+
+        // accessors
+        public Policy getPolicy() {
+            return policy;
+        }
+
+        public SimulationStats getStats() {
+            return stats;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    /**
+     * Prints a table of the results, one policy a line.
+     *
+     * @param out Where to print.
+     * @param entries The results from play().
+     */
+    public static void report(PrintStream out, List<Entry> entries) {
+        out.printf("%-16s %8s %17s %16s %12s%n", "policy", "win rate", "95% CI", "turns to win", "games/s");
+        for (Entry entry : entries) {
+            SimulationStats stats = entry.stats;
+            out.printf("%-16s %7.2f%% %7.2f%%-%6.2f%% %7.1f +/- %-4.1f %,12.0f%n",
+                    entry.policy.getClass().getSimpleName(), stats.getWinRate() * 100,
+                    stats.getWinRateLow(Z) * 100, stats.getWinRateHigh(Z) * 100,
+                    stats.getMeanTurnsToWin(), entry.getTurnsToWinHalfWidth(), entry.getGamesPerSecond());
+        }
+    }
+
+    /**
+     * Runs a tournament from the command line.<p>
+     * Arguments (all optional): policy class names joined by commas, either simple names in this package
+     * or fully qualified (default "GreedyPolicy,TravellerPolicy"), games per policy (default 1000000),
+     * mode (e/n/h/s, default n), max turns per game (default 500), seed (default 42).
+     * --balance=FILE plays the mode's economy from a balance BalanceTuner wrote instead of the built-in one.
+     */
+    public static void main(String[] args) throws IOException, ReflectiveOperationException {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        Balance balance = Balance.fromOption(rest);
+        String names = rest.size() > 0 ? rest.get(0) : "GreedyPolicy,TravellerPolicy";
+        long games = rest.size() > 1 ? Long.parseLong(rest.get(1)) : 1_000_000;
+        GameMode mode = GameMode.fromChoice(rest.size() > 2 ? rest.get(2).toLowerCase() : "n");
+        int maxTurns = rest.size() > 3 ? Integer.parseInt(rest.get(3)) : 500;
+        long seed = rest.size() > 4 ? Long.parseLong(rest.get(4)) : 42;
+
+        List<Policy> policies = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String className = name.contains(".") ? name : Tournament.class.getPackageName() + "." + name;
+            policies.add((Policy) Class.forName(className).getDeclaredConstructor().newInstance());
+        }
+        Economy economy = balance.getEconomy(mode);
+        if (balance.getFile() != null) {
+            System.out.println("Using the balance in " + balance.getFile() + ": " + economy);
+        }
+        System.out.println("Playing " + policies.size() + " policies " + games + " games each in " + mode + " mode on "
+                + ForkJoinPool.getCommonPoolParallelism() + " workers with seed " + seed + "...");
+        report(System.out, new Tournament(economy, maxTurns, seed).play(policies, games));
+    }
+}
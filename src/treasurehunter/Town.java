@@ -0,0 +1,557 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.SplittableRandom;
+/**
+ * The Town Class is where it all happens.
+ * The Town is designed to manage all the things a Hunter can do in town.
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Town {
+    // static variable representing the different treasures the player can collect
+    private static Treasure[] townTreasureList = Treasure.values();
+    // the odds every roll in a town is made with; Solver works from the same numbers
+    // the chance of finding a fight, and then of losing it, in a tough town and in a mild one
+    static final double TOUGH_TOWN_ODDS = 0.66;
+    static final double MILD_TOWN_ODDS = 0.33;
+    // in easy mode the chance of losing a fight is instead 1% to this many %
+    static final int EASY_MAX_LOSING_PERCENT = 25;
+    static final int MAX_BRAWL_GOLD = 10;
+    static final double ITEM_BREAK_CHANCE = 0.5;
+    static final double DIG_CHANCE = 0.5;
+    static final int MAX_DIG_GOLD = 20;
+    // how many low bits of an int pack() uses, and where it puts the treasure and the save() flags
+    static final int PACKED_BITS = 9;
+    static final int PACKED_TREASURE_SHIFT = 3;
+    static final int PACKED_FLAGS_SHIFT = 5;
+    // the terrains a town can be surrounded by, all equally likely
+    static final Terrain[] TERRAINS = {
+            new Terrain("Mountains", Item.ROPE),
+            new Terrain("Ocean", Item.BOAT),
+            new Terrain("Plains", Item.HORSE),
+            new Terrain("Desert", Item.WATER),
+            new Terrain("Jungle", Item.MACHETE),
+            new Terrain("Marsh", Item.BOOTS)
+    };
+    // instance variables
+    private Hunter hunter;
+    private Shop shop;
+    private Terrain terrain;
+    private String printMessage;
+    private boolean toughTown;
+    private Treasure treasure;
+    private boolean isSearched;
+    private boolean isDug;
+    private boolean easyMode;
+    private boolean hunterBroke;
+    private SplittableRandom random;
+    private SplittableRandom fightRandom; // the same as random unless the rolls were split (see splitRolls())
+    private SplittableRandom digRandom; // the same as random unless the rolls were split
+    private OutputSink window;
+    private EventLog log = NullEventLog.INSTANCE;
+
+    /**
+     * The Town Constructor takes in a shop and the surrounding terrain, but leaves the hunter as null until one arrives.<p>
+     * The game mode and the game's random source are handed in rather than shared, so that many games can run
+     * side by side (e.g. one per GameServer session) and any game can be replayed exactly from its seed.
+     *
+     * @param sh The town's shop.
+     * @param toughness The surrounding terrain.
+     * @param easyMode Whether the game is being played in easy mode.
+     * @param random The game's random source; every roll the town makes comes from here.
+     */
+    public Town(Shop sh, double toughness, boolean easyMode, SplittableRandom random, OutputSink win) {
+        this(sh, easyMode, random, win);
+        this.terrain = getNewTerrain();
+
+        // the hunter gets set using the hunterArrives method, which
+        // gets called from a client class
+        hunter = null;
+        printMessage = "";
+
+        // higher toughness = more likely to be a tough town
+        toughTown = (random.nextDouble() < toughness);
+
+        // gets a random treasure from townTreasureList and assigns it to treasure
+        int randIndex = random.nextInt(townTreasureList.length);
+        treasure = townTreasureList[randIndex];
+
+        //town starts unsearched
+        isSearched = false;
+        //town starts unndug
+        isDug = false;
+        hunterBroke = false;
+    }
+
+    /**
+     * Builds a town without rolling anything, for load() to fill in.
+     */
+    private Town(Shop sh, boolean easyMode, SplittableRandom random, OutputSink win) {
+        window = win;
+        shop = sh;
+        this.easyMode = easyMode;
+        this.random = random;
+        fightRandom = random;
+        digRandom = random;
+        printMessage = "";
+    }
+
+    /**
+     * Rebuilds a town from its TOWN_ENTERED event (see JournalReplayer). The town never rolls anything,
+     * so it can only be replayed, not played.
+     *
+     * @param sh The town's shop.
+     * @param neededItem The subject of the TOWN_ENTERED event: the ordinal of the item needed to leave.
+     * @param treasureAndToughness The value of the TOWN_ENTERED event: the treasure's ordinal, plus 256 if the town is tough.
+     * @param hunter The hunter who entered the town.
+     * @param easyMode Whether the game is being played in easy mode.
+     */
+    Town(Shop sh, int neededItem, int treasureAndToughness, Hunter hunter, boolean easyMode) {
+        this(sh, easyMode, null, NullOutputSink.INSTANCE);
+        int terrainIndex = terrainIndex(Item.values()[neededItem]);
+        if (terrainIndex < 0) {
+            throw new IllegalArgumentException("No terrain needs item " + neededItem);
+        }
+        terrain = TERRAINS[terrainIndex];
+        treasure = townTreasureList[treasureAndToughness & 0xff];
+        toughTown = (treasureAndToughness & 0x100) != 0;
+        this.hunter = hunter;
+    }
+
+    /**
+     * @param random The game's random source from now on, e.g. after the game was reseeded.
+     */
+    void setRandom(SplittableRandom random) {
+        this.random = random;
+        fightRandom = random;
+        digRandom = random;
+    }
+
+    /**
+     * Splits a stream for fights and another for digging off the town's random source, so that what happens
+     * in a fight or a dig doesn't depend on what else has been rolled, e.g. so that every policy in a Tournament
+     * meets the same towns and the same luck in them whatever it does. The town's own rolls, and whether an item
+     * breaks on the way out, stay on the town's random source.
+     */
+    void splitRolls() {
+        fightRandom = random.split();
+        digRandom = random.split();
+    }
+
+    /**
+     * Sends everything that changes the town from now on to the given log.
+     *
+     * @param log Where the town's events go.
+     */
+    public void setEventLog(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Applies an event that was logged by this town to it again (see JournalReplayer).
+     *
+     * @param event TOWN_SEARCHED, TOWN_DUG or HUNTER_BROKE; anything else is ignored.
+     */
+    void replay(GameEvent event) {
+        if (event == GameEvent.TOWN_SEARCHED) {
+            isSearched = true;
+        } else if (event == GameEvent.TOWN_DUG) {
+            isDug = true;
+        } else if (event == GameEvent.HUNTER_BROKE) {
+            hunterBroke = true;
+        }
+    }
+
+    /**
+     * Writes the town's terrain, treasure, toughness, what has been done here and the latest news
+     * in the save format (see TreasureHunter.save()). The shop and the hunter are saved elsewhere.
+     *
+     * @param out Where the town is written.
+     */
+    public void save(DataOutput out) throws IOException {
+        out.writeUTF(terrain.getTerrainName());
+        out.writeByte(terrain.getNeededItem().ordinal());
+        out.writeByte(treasure.ordinal());
+        int flags = 0;
+        if (toughTown) {
+            flags |= 1;
+        }
+        if (isSearched) {
+            flags |= 2;
+        }
+        if (isDug) {
+            flags |= 4;
+        }
+        if (hunterBroke) {
+            flags |= 8;
+        }
+        out.writeByte(flags);
+        out.writeUTF(printMessage);
+    }
+
+    /**
+     * Reads back a town written by save(), with the hunter already in it.
+     *
+     * @param in Where the town is read from.
+     * @param sh The town's shop.
+     * @param hunter The hunter who was in the town.
+     * @param easyMode Whether the game is being played in easy mode.
+     * @param random The game's random source.
+     * @param win Where the town's messages are shown.
+     * @return The restored town.
+     * @throws IOException if the town can't be read, or its terrain isn't one of TERRAINS.
+     */
+    public static Town load(DataInput in, Shop sh, Hunter hunter, boolean easyMode, SplittableRandom random, OutputSink win) throws IOException {
+        Town town = new Town(sh, easyMode, random, win);
+        String terrainName = in.readUTF();
+        int terrainIndex = terrainIndex(readEnum(in, Item.values()));
+        if (terrainIndex < 0 || !TERRAINS[terrainIndex].getTerrainName().equals(terrainName)) {
+            throw new IOException("Unknown terrain " + terrainName + " in saved town");
+        }
+        town.terrain = TERRAINS[terrainIndex];
+        town.treasure = readEnum(in, townTreasureList);
+        int flags = in.readUnsignedByte();
+        town.toughTown = (flags & 1) != 0;
+        town.isSearched = (flags & 2) != 0;
+        town.isDug = (flags & 4) != 0;
+        town.hunterBroke = (flags & 8) != 0;
+        town.printMessage = in.readUTF();
+        town.hunter = hunter;
+        return town;
+    }
+
+    /**
+     * Packs the town's terrain, treasure, toughness and what has been done here into the low PACKED_BITS bits
+     * of an int (see SessionStore). Unlike save(), the latest news is left out.
+     *
+     * @return the terrain's index in TERRAINS in bits 0-2, the treasure in bits 3-4 and the save() flags in bits 5-8.
+     */
+    int pack() {
+        int terrainIndex = terrainIndex(terrain.getNeededItem());
+        if (terrainIndex < 0) {
+            throw new IllegalStateException("Town's terrain " + terrain.getTerrainName() + " can't be packed");
+        }
+        int flags = (toughTown ? 1 : 0) | (isSearched ? 2 : 0) | (isDug ? 4 : 0) | (hunterBroke ? 8 : 0);
+        return terrainIndex | treasure.ordinal() << PACKED_TREASURE_SHIFT | flags << PACKED_FLAGS_SHIFT;
+    }
+
+    /**
+     * Rebuilds a town packed by pack(), with the hunter already in it and no news.
+     *
+     * @param bits The packed town; bits above PACKED_BITS are ignored.
+     * @param sh The town's shop.
+     * @param hunter The hunter who was in the town.
+     * @param easyMode Whether the game is being played in easy mode.
+     * @param random The game's random source.
+     * @param win Where the town's messages are shown.
+     * @return The unpacked town.
+     */
+    static Town unpack(int bits, Shop sh, Hunter hunter, boolean easyMode, SplittableRandom random, OutputSink win) {
+        Town town = new Town(sh, easyMode, random, win);
+        town.terrain = TERRAINS[bits & 7];
+        town.treasure = townTreasureList[(bits >>> PACKED_TREASURE_SHIFT) & 3];
+        int flags = bits >>> PACKED_FLAGS_SHIFT;
+        town.toughTown = (flags & 1) != 0;
+        town.isSearched = (flags & 2) != 0;
+        town.isDug = (flags & 4) != 0;
+        town.hunterBroke = (flags & 8) != 0;
+        town.hunter = hunter;
+        return town;
+    }
+
+    /**
+     * @return the index in TERRAINS of the terrain the given item gets a hunter across, or -1 if there is none.
+     */
+    static int terrainIndex(Item neededItem) {
+        for (int i = 0; i < TERRAINS.length; i++) {
+            if (TERRAINS[i].getNeededItem() == neededItem) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> T readEnum(DataInput in, T[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values.length) {
+            throw new IOException("Unknown value " + ordinal + " in saved town");
+        }
+        return values[ordinal];
+    }
+
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+
+    public boolean isForSale(Item item) {
+        return shop.getPrices().isForSale(item);
+    }
+
+    public int getPrice(Item item, boolean isBuying) {
+        return shop.checkMarketPrice(item, isBuying);
+    }
+
+    public boolean isToughTown() {
+        return toughTown;
+    }
+
+    /**
+     * @return the treasure hidden in this town.
+     */
+    public Treasure getTreasure() {
+        return treasure;
+    }
+
+    public boolean isSearched() {
+        return isSearched;
+    }
+
+    public boolean isDug() {
+        return isDug;
+    }
+
+    /**
+     * @return true if the hunter lost a brawl they couldn't pay for, which ends the game.
+     */
+    public boolean isHunterBroke() {
+        return hunterBroke;
+    }
+
+    public String getLatestNews() {
+        return printMessage;
+    }
+
+    /**
+     * Assigns an object to the Hunter in town.
+     *
+     * @param hunter The arriving Hunter.
+     */
+    public void hunterArrives(Hunter hunter) {
+        this.hunter = hunter;
+        log.record(GameEvent.TOWN_ENTERED, terrain.getNeededItem().ordinal(), treasure.ordinal() | (toughTown ? 0x100 : 0));
+        if (!window.isEnabled()) {
+            return;
+        }
+        window.addTextToWindow("Welcome to town, " + hunter.getHunterName() + ".");
+        if (toughTown) {
+            window.addTextToWindow("\nIt's pretty rough around here, so watch yourself.",Colors.red);
+        } else {
+            window.addTextToWindow("\nWe're just a sleepy little town with mild mannered folk.",Colors.green);
+        }
+    }
+
+    /**
+     * Handles the action of the Hunter leaving the town.
+     *
+     * @return true if the Hunter was able to leave town.
+     */
+    public boolean leaveTown() {
+        boolean canLeaveTown = terrain.canCrossTerrain(hunter);
+        if (canLeaveTown) {
+            Item item = terrain.getNeededItem();
+            if (window.isEnabled()) {
+                window.addTextToWindow("You used your " + item + " to cross the " + terrain.getTerrainName() + ".");
+            }
+            if (checkItemBreak()) {
+                if (window.isEnabled()) {
+                    if(item.isBreakable()){
+                        window.addTextToWindow("\nUnfortunately, your " + item + " broke.");
+                    }else{
+                        window.addTextToWindow("\nUnfortunately, you lost your " + item+".");
+                    }
+                }
+                hunter.removeItemFromKit(item);
+                log.record(GameEvent.ITEM_BROKEN, item.ordinal(), 0);
+            }
+            return true;
+        }
+
+        if (window.isEnabled()) {
+            window.addTextToWindow("You can't leave town, " + hunter.getHunterName() + ". You don't have a " + terrain.getNeededItem() + ".");
+        }
+        return false;
+    }
+
+    /**
+     * Handles calling the enter method on shop whenever the user wants to access the shop.
+     *
+     * @param choice If the user wants to buy or sell items at the shop.
+     * @param input Where the user's answers to the shopkeeper are read from.
+     */
+    public void enterShop(String choice, InputSource input) {
+        printMessage = shop.enter(hunter, choice, input);
+    }
+
+    /**
+     * Buys or sells a single item at the shop without going through the shop's prompts.
+     *
+     * @param item The item being traded.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return true if the trade went through.
+     */
+    public boolean tradeAtShop(Item item, boolean isBuying) {
+        return shop.trade(hunter, item, isBuying);
+    }
+
+    /**
+     * Gives the hunter a chance to fight for some gold.<p>
+     * The chances of finding a fight and winning the gold are based on the toughness of the town.<p>
+     * The tougher the town, the easier it is to find a fight, and the harder it is to win one.
+     */
+    public void lookForTrouble() {
+        double noTroubleChance;
+        if (toughTown) {
+            noTroubleChance = TOUGH_TOWN_ODDS;
+        } else {
+            noTroubleChance = MILD_TOWN_ODDS;
+        }
+        if (fightRandom.nextDouble() > noTroubleChance) {
+            window.addTextToWindow("You couldn't find any trouble");
+        } else { //fight found
+            int goldDiff = fightRandom.nextInt(MAX_BRAWL_GOLD) + 1;
+            if (hunter.hasItemInKit(Item.SWORD)) { //automatically win the fight
+                window.addTextToWindow("You want trouble, stranger?!\n",Colors.red);
+                window.addTextToWindow("*You unsheathe your blade and point it towards the aggressive fellow.*\n",Colors.cyan);
+                window.addTextToWindow("Never mind, rather not get my face turned into a cutting board. Here, take my gold...\n");
+                showGold("\nYou won the brawl and receive ", goldDiff, Colors.yellow, " gold.");
+                hunter.changeGold(goldDiff);
+            }
+            else { //fight like normal
+                if(easyMode){
+                    noTroubleChance = (fightRandom.nextInt(EASY_MAX_LOSING_PERCENT)+1)/100.0;
+                }
+                window.addTextToWindow("You want trouble, stranger!  You got it!\nOof! Umph! Ow!\n",Colors.red);
+                if (fightRandom.nextDouble() > noTroubleChance) {
+                    window.addTextToWindow("Okay, stranger! You proved yer mettle. Here, take my gold.");
+                    showGold("\nYou won the brawl and receive ", goldDiff, Colors.yellow, " gold.");
+                    hunter.changeGold(goldDiff);
+                } else {
+                    window.addTextToWindow("That'll teach you to go lookin' fer trouble in MY town! Now pay up!");
+                    if(hunter.getGold()-goldDiff<0){
+                        hunterBroke = true;
+                        log.record(GameEvent.HUNTER_BROKE, 0, 0);
+                    }else {
+                        showGold("\nYou lost the brawl and pay ", goldDiff, Colors.red, " gold.");
+                        hunter.changeGold(-goldDiff);
+                    }
+                }
+            }
+            window.addTextToWindow("\n");
+        }
+    }
+
+    public void infoString() {
+        if (window.isEnabled()) {
+            window.addTextToWindow("This nice little town is surrounded by "+terrain.getTerrainName()+ ".");
+        }
+    }
+
+    /**
+     * Shows an amount of gold in its own color between two bits of plain text.
+     * The amount is only turned into text if the window is actually showing anything.
+     */
+    private void showGold(String before, int gold, Color color, String after) {
+        if (window.isEnabled()) {
+            window.addTextToWindow(before); window.addTextToWindow(""+gold,color); window.addTextToWindow(after);
+        }
+    }
+
+    /**
+     * Determines the surrounding terrain for a town, and the item needed in order to cross that terrain.
+     *
+     * @return A Terrain object.
+     */
+    private Terrain getNewTerrain() {
+        double rnd = random.nextDouble();
+        for (int i = 0; i < TERRAINS.length - 1; i++) {
+            if (rnd < (i + 1) / (double) TERRAINS.length) {
+                return TERRAINS[i];
+            }
+        }
+        return TERRAINS[TERRAINS.length - 1];
+    }
+
+    /**
+     * Determines whether a used item has broken.
+     *
+     * @return true if the item broke.
+     */
+    private boolean checkItemBreak() {
+        if(easyMode){
+            return false;
+        }else {
+            double rand = random.nextDouble();
+            return (rand < ITEM_BREAK_CHANCE);
+        }
+    }
+    /**
+     * Allows the player to hunt for treasure.
+     * Updates hunter's treasure array if they found a new item and there is a null element in their
+     * treasure array.
+     * Also updates the "searched" instance variable
+     *
+     * @return true if the player's treasure array was updated, false otherwise.
+     * */
+    public boolean huntForTreasure() {
+        if (isSearched == true) { //return early if town was already searched
+            window.addTextToWindow("\n"+"You have already searched this town for treasure.");
+            return false;
+        }
+        isSearched = true;
+        log.record(GameEvent.TOWN_SEARCHED, 0, 0);
+        if (window.isEnabled()) {
+            window.addTextToWindow("\n"+"You found a "); window.addTextToWindow(treasure+"!",Colors.yellow);
+        }
+        //if the treasure is dust, don't add it to the player's treasures
+        if (!treasure.isCollectible()) {
+            window.addTextToWindow("\n"+"But you don't need that...");
+            return false;
+        } else {
+            int status = hunter.addTreasure(treasure);
+            switch (status) {
+                case 0:
+                    window.addTextToWindow("\n"+"What a neat thing to find!");
+                    return true;
+                case 1: //item already in inventory
+                    window.addTextToWindow("\n"+"But you already have one.");
+                    return false;
+                case 2:
+                    window.addTextToWindow("\n"+"But there's not enough space to keep that.");
+                    return false;
+            }
+        }
+        //failsafe
+        return false;
+    }
+
+    public void digForGold(){
+        printMessage = "";
+        if(isDug){
+            window.addTextToWindow("\nYou already dug for gold in this town.",Colors.yellow);
+        }else if(hunter.hasItemInKit(Item.SHOVEL)){
+            isDug = true;
+            log.record(GameEvent.TOWN_DUG, 0, 0);
+            double rand = digRandom.nextDouble();
+            if(rand<DIG_CHANCE){
+                int goldFound = digRandom.nextInt(MAX_DIG_GOLD)+1;
+                if (window.isEnabled()) {
+                    window.addTextToWindow("\nYou dug up ",Colors.green); window.addTextToWindow(""+goldFound,Colors.yellow); window.addTextToWindow(" gold!",Colors.green);
+                }
+                hunter.changeGold(goldFound);
+            }else{
+                window.addTextToWindow("\nYou dug but only found dirt",Colors.yellow);
+            }
+        }else{
+            window.addTextToWindow("\nYou can't dig for gold without a shovel",Colors.yellow);
+        }
+    }
+
+}
\ No newline at end of file
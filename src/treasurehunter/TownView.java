@@ -0,0 +1,34 @@
+package treasurehunter;
+
+/**
+ * A TownView is what an automated player (see Policy) can see of the town they are in:
+ * the terrain around it, what has been done here and what the shop charges, but not the treasure hidden here
+ * and nothing that changes the town or the shop. The Simulation hands policies a view that only passes these
+ * calls on to the town, so a policy can't cast it back to a Town.
+ */
+
+public interface TownView {
+
+    /**
+     * @return the terrain around the town, which never changes.
+     */
+    Terrain getTerrain();
+
+    boolean isToughTown();
+
+    boolean isSearched();
+
+    boolean isDug();
+
+    /**
+     * @return true if the town's shop sells the item at all.
+     */
+    boolean isForSale(Item item);
+
+    /**
+     * @param item The item in question.
+     * @param isBuying Whether the item would be bought or sold.
+     * @return what the town's shop would charge or pay for the item right now.
+     */
+    int getPrice(Item item, boolean isBuying);
+}
@@ -0,0 +1,46 @@
+package treasurehunter;
+
+/**
+ * A Policy that keeps moving: like GreedyPolicy it grabs the sword and searches and digs every town,
+ * but it spends its gold on getting across the terrain first and only buys a shovel when it is stuck
+ * with nothing better to do than brawl.
+ */
+
+public class TravellerPolicy implements Policy {
+
+    public String nextMove(HunterView hunter, TownView town) {
+        if (!hunter.hasItemInKit(Item.SWORD) && town.isForSale(Item.SWORD)) {
+            return "b";
+        }
+        if (!town.isSearched()) {
+            return "h";
+        }
+        if (!town.isDug() && hunter.hasItemInKit(Item.SHOVEL)) {
+            return "d";
+        }
+        if (town.getTerrain().canCrossTerrain(hunter)) {
+            return "m";
+        }
+        if (hunter.getGold() >= town.getPrice(town.getTerrain().getNeededItem(), true)) {
+            return "b";
+        }
+        if (!hunter.hasItemInKit(Item.SHOVEL) && !town.isDug() && hunter.getGold() >= town.getPrice(Item.SHOVEL, true)) {
+            return "b";
+        }
+        return "l";
+    }
+
+    public Item chooseItem(HunterView hunter, TownView town, boolean isBuying) {
+        if (!isBuying) {
+            return null;
+        }
+        if (!hunter.hasItemInKit(Item.SWORD) && town.isForSale(Item.SWORD)) {
+            return Item.SWORD;
+        }
+        Item neededItem = town.getTerrain().getNeededItem();
+        if (!town.getTerrain().canCrossTerrain(hunter) && hunter.getGold() >= town.getPrice(neededItem, true)) {
+            return neededItem;
+        }
+        return Item.SHOVEL;
+    }
+}
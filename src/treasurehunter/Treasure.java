@@ -0,0 +1,55 @@
+package treasurehunter;
+
+/**
+ * The Treasure enum lists the treasures that can be found in a town.<p>
+ * Each treasure owns one bit, so a hunter's whole collection fits in a single int (see Hunter).
+ */
+
+public enum Treasure {
+    CROWN("crown"),
+    TROPHY("trophy"),
+    GEM("gem"),
+    DUST("dust");
+
+    private final String name;
+    private final int bit;
+
+    Treasure(String name) {
+        this.name = name;
+        bit = 1 << ordinal();
+    }
+
+    /**
+     * Finds the treasure with the given name.
+     *
+     * @param name The (lower case) name of the treasure.
+     * @return The treasure, or null if there is no such treasure.
+     */
+    public static Treasure fromName(String name) {
+        for (Treasure treasure : values()) {
+            if (treasure.name.equals(name)) {
+                return treasure;
+            }
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * @return false for dust, which nobody needs.
+     */
+    public boolean isCollectible() {
+        return this != DUST;
+    }
+
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,463 @@
+package treasurehunter;
+
+import java.awt.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.awt.Color;
+
+/**
+ * This class is responsible for controlling the Treasure Hunter game.<p>
+ * It handles the display of the menu and the processing of the player's choices.<p>
+ * It handles all the display based on the messages it receives from the Town object. <p>
+ *
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class TreasureHunter {
+    // the first byte of every save; bump it whenever the save format changes
+    private static final int SAVE_VERSION = 4;
+    // how many longs dehydrate() packs a game into, where the mode goes in the first of them,
+    // and how many bits of the third the turns take up, below where the hunter is in the world
+    static final int PACKED_LONGS = 3;
+    private static final int MODE_SHIFT = Hunter.PACKED_BITS + Town.PACKED_BITS;
+    private static final int PACKED_TURNS_BITS = 24;
+
+    // instance variables
+    private Town currentTown;
+    private Hunter hunter;
+    private GameContext game;
+    private GameMode mode;
+    private Economy economy; // the mode's, from the context's balance unless the game was restored with its own
+    private SplittableRandom random;
+    private InputSource input;
+    private int turns; // turns played since the game started
+    private World world; // null unless the context keeps the world, until the first town is entered
+    private long townId; // where the hunter is in the world
+    Screen window;
+
+    /**
+     * Constructs the Treasure Hunter game with a fresh random seed.
+     */
+    public TreasureHunter() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs the Treasure Hunter game; two games with the same seed and the same input play out identically.
+     * The game is shown in a window, or in the terminal if there is no display.
+     *
+     * @param seed The seed for every random roll in the game.
+     */
+    public TreasureHunter(long seed) {
+        this(consoleGame(seed));
+    }
+
+    /**
+     * @return a game read from the keyboard and shown in a window, or in the terminal if there is no display.
+     */
+    private static GameContext consoleGame(long seed) {
+        if (GraphicsEnvironment.isHeadless()) {
+            TerminalOutputSink terminal = new TerminalOutputSink();
+            return new GameContext(seed, new FlushingInput(ConsoleInput.INSTANCE, terminal), terminal);
+        }
+        return new GameContext(seed, ConsoleInput.INSTANCE, new OutputWindow());
+    }
+
+    /**
+     * Constructs the Treasure Hunter game reading from and writing to anywhere, e.g. a script and no window.
+     *
+     * @param seed The seed for every random roll in the game.
+     * @param input Where every line the player types comes from.
+     * @param output Where the game is shown.
+     */
+    public TreasureHunter(long seed, InputSource input, OutputSink output) {
+        this(new GameContext(seed, input, output));
+    }
+
+    /**
+     * Constructs the Treasure Hunter game for one session; nothing is shared with any other game.
+     *
+     * @param game The session's seed, input and output.
+     */
+    public TreasureHunter(GameContext game) {
+        this.game = game;
+        random = game.getRandom();
+        input = game.getInput();
+        window = new Screen(game.getOutput());
+        // these will be initialized in the play method
+        currentTown = null;
+        hunter = null;
+        mode = game.getMode();
+        economy = game.getBalance().getEconomy(mode);
+    }
+
+    public long getSeed(){return game.getSeed();}
+
+    public GameContext getContext(){return game;}
+
+    /**
+     * @return the hunter, or null while the player is still picking a name and mode.
+     */
+    Hunter getHunter(){return hunter;}
+
+    /**
+     * Starts the game; this is the only public method
+     */
+    public void play() {
+        welcomePlayer();
+        enterTown();
+        showMenu();
+    }
+
+    /**
+     * Picks the game up at the menu, e.g. after restore().
+     */
+    public void resume() {
+        showMenu();
+    }
+
+    /**
+     * Writes the whole game to a compact binary save: the save format version, the mode and its economy, whether the
+     * game is over, the seed the rest of the game is rolled from, the turns played, the hunter and the town they are in, and,
+     * if the game keeps a world, where in it the hunter is and the world itself (see World.save()).
+     * A game in progress without a world takes about a hundred bytes. Call it between turns.<p>
+     * The game carries on from the saved seed too, so it plays on exactly as the restored game would.
+     *
+     * @param out Where the game is written.
+     */
+    public void save(DataOutput out) throws IOException {
+        long seed = random.nextLong();
+        out.writeByte(SAVE_VERSION);
+        out.writeByte(mode.ordinal());
+        economy.write(out);
+        out.writeBoolean(game.isRunning());
+        out.writeLong(seed);
+        out.writeInt(turns);
+        hunter.save(out);
+        currentTown.save(out);
+        out.writeBoolean(world != null);
+        if (world != null) {
+            out.writeLong(townId);
+            world.save(out);
+        }
+        reseed(seed);
+    }
+
+    /**
+     * Reads back a game written by save() into a context; call resume() to carry on playing it.<p>
+     * The context keeps its input, output, event log, leaderboard and market, so a game can be restored
+     * into the session it was saved from; its seed and mode are replaced with the saved ones, and the game plays on
+     * with the economy it was saved with, whatever the context's balance.
+     *
+     * @param in Where the game is read from.
+     * @param context The session the game carries on in.
+     * @return The restored game.
+     */
+    public static TreasureHunter restore(DataInput in, GameContext context) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != SAVE_VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        int modeIndex = in.readUnsignedByte();
+        if (modeIndex >= GameMode.values().length) {
+            throw new IOException("Unknown game mode " + modeIndex);
+        }
+        GameMode mode = GameMode.values()[modeIndex];
+        Economy economy = Economy.read(in, mode);
+        boolean running = in.readBoolean();
+        context.reseed(in.readLong());
+        context.setMode(mode);
+        if (!running) {
+            context.endRun();
+        }
+        TreasureHunter game = new TreasureHunter(context);
+        game.economy = economy;
+        game.turns = in.readInt();
+        game.hunter = Hunter.load(in, game.window);
+        game.currentTown = Town.load(in, game.newShop(), game.hunter, game.mode.isEasy(), game.random, game.window);
+        if (in.readBoolean()) {
+            context.setWorldKept(true);
+            game.townId = in.readLong();
+            game.world = World.load(in, economy.getToughness(), economy.getPrices(), World.DEFAULT_CACHED_TOWNS);
+        }
+        game.hunter.setEventLog(context.getEventLog());
+        game.currentTown.setEventLog(context.getEventLog());
+        return game;
+    }
+
+    /**
+     * Starts the game's random source over from a seed, for everything in the game that rolls.
+     */
+    private void reseed(long seed) {
+        game.reseed(seed);
+        random = game.getRandom();
+        currentTown.setRandom(random);
+    }
+
+    /**
+     * Packs the game, all but the hunter's name and the world, into PACKED_LONGS longs for a SessionStore:
+     * the hunter, the town (see Hunter.pack() and Town.pack()), the mode and whether the game is over in the first,
+     * the seed the rest of the game is rolled from in the second, and the turns played and where the hunter is in
+     * the world in the third. Like save(), call it between turns; the town's latest news is dropped.
+     * The game carries on from the packed seed too, so it plays on exactly as the hydrated game would.
+     *
+     * @param into Where the game is packed.
+     * @param at The index of the first long.
+     */
+    void dehydrate(long[] into, int at) {
+        long seed = random.nextLong();
+        into[at] = hunter.pack() | (long) currentTown.pack() << Hunter.PACKED_BITS
+                | (long) mode.ordinal() << MODE_SHIFT | (game.isRunning() ? 0 : 1L << 63);
+        into[at + 1] = seed;
+        into[at + 2] = Math.min(turns, (1 << PACKED_TURNS_BITS) - 1) | townId << PACKED_TURNS_BITS;
+        reseed(seed);
+    }
+
+    /**
+     * Unpacks a game packed by dehydrate() into a context; call resume() to carry on playing it.
+     * Like restore(), the context keeps everything but its seed and mode; the economy isn't packed, so the game
+     * plays on with its mode's economy from the context's balance.
+     *
+     * @param from Where the game was packed.
+     * @param at The index of the first long.
+     * @param hunterName The hunter's name.
+     * @param world The game's world, or null if it doesn't keep one.
+     * @param context The session the game carries on in.
+     * @return The unpacked game.
+     */
+    static TreasureHunter hydrate(long[] from, int at, String hunterName, World world, GameContext context) {
+        long bits = from[at];
+        context.reseed(from[at + 1]);
+        context.setMode(GameMode.values()[(int) (bits >>> MODE_SHIFT) & 3]);
+        if (bits < 0) {
+            context.endRun();
+        }
+        TreasureHunter game = new TreasureHunter(context);
+        game.turns = (int) (from[at + 2] & ((1 << PACKED_TURNS_BITS) - 1));
+        game.hunter = Hunter.unpack(bits, hunterName, game.window);
+        game.currentTown = Town.unpack((int) (bits >>> Hunter.PACKED_BITS), game.newShop(), game.hunter,
+                game.mode.isEasy(), game.random, game.window);
+        if (world != null) {
+            context.setWorldKept(true);
+            game.world = world;
+            game.townId = from[at + 2] >>> PACKED_TURNS_BITS;
+        }
+        game.hunter.setEventLog(context.getEventLog());
+        game.currentTown.setEventLog(context.getEventLog());
+        return game;
+    }
+
+    /**
+     * @return the game's world, or null if it doesn't keep one or hasn't entered a town yet.
+     */
+    World getWorld(){return world;}
+
+    /**
+     * Creates a hunter object at the beginning of the game and populates the class member variable with it.
+     */
+    private void welcomePlayer() {
+        window.addTextToWindow("\n"+"Welcome to TREASURE HUNTER!");
+        window.addTextToWindow("\n"+"Going hunting for the big treasure, eh?");
+        window.addTextToWindow("\nWhat's your name, Hunter? ");
+        String name = input.nextLowerCase("");
+
+        window.addTextToWindow("\nSelect game mode (e/n/h): ");
+        String hard = input.nextLowerCase("");
+        mode = GameMode.fromChoice(hard);
+        game.setMode(mode);
+        economy = game.getBalance().getEconomy(mode);
+        if (mode == GameMode.SAMURAI) {
+            window.addTextToWindow("\n\nSamurai mode has been activated...",Colors.red);
+        }
+        // set hunter instance variable
+        hunter = new Hunter(name, economy.getStartingGold(), mode.getInventoryCapacity(), window);
+        hunter.setEventLog(game.getEventLog());
+        game.getEventLog().record(GameEvent.GAME_STARTED, mode.ordinal() << 8 | mode.getInventoryCapacity(), economy.getStartingGold());
+        //set test mode
+        if (hard.equals("test")) {
+            hunter.setTestMode(true);
+        }
+        window.clear();
+    }
+
+    /**
+     * Creates a new town and adds the Hunter to it.
+     */
+    private void enterTown() {
+        // in hard mode, you get less money back when you sell items
+        // and the town is "tougher"
+        double toughness = economy.getToughness();
+
+        // note that we don't need to access the Shop object
+        // outside of this method, so it isn't necessary to store it as an instance
+        // variable; we can leave it as a local variable
+        Shop shop = newShop();
+
+        // creating the new Town -- which we need to store as an instance
+        // variable in this class, since we need to access the Town
+        // object in other methods of this class
+        if (game.isWorldKept()) {
+            if (world == null) {
+                world = new World(random.nextLong(), toughness, shop.getPrices(), World.DEFAULT_CACHED_TOWNS);
+                townId = World.HOME;
+            }
+            currentTown = world.enter(townId, shop, hunter, mode.isEasy(), random, window);
+        } else {
+            currentTown = new Town(shop, toughness, mode.isEasy(), random, window);
+        }
+        currentTown.setEventLog(game.getEventLog());
+
+        // calling the hunterArrives method, which takes the Hunter
+        // as a parameter; note this also could have been done in the
+        // constructor for Town, but this illustrates another way to associate
+        // an object with an object of a different class
+        currentTown.hunterArrives(hunter);
+    }
+
+    /**
+     * Tells the hunter where the cheapest treasure they haven't got is, if the world knows of one.
+     */
+    private void showNearestTreasure() {
+        world.update(townId, currentTown);
+        World.Route route = world.findTreasure(townId, hunter);
+        if (route == null) {
+            window.addTextToWindow("\nNobody around here has heard of any treasure you haven't got.");
+        } else if (route.getRoads() == 0) {
+            window.addTextToWindow("\nThey say there's a " + route.getTreasure() + " hidden somewhere in this very town.");
+        } else {
+            window.addTextToWindow("\nThey say there's a " + route.getTreasure() + " " + route.getRoads() + (route.getRoads() == 1 ? " town away" : " towns away")
+                    + (route.getCost() == 0 ? "." : ", if you can spend " + route.getCost() + " gold on the way."));
+        }
+    }
+
+    /**
+     * @return a shop for the town the hunter is in, charging the economy's prices and trading in the game's market.
+     */
+    private Shop newShop() {
+        return new Shop(economy.getPrices(), game.getMarket(), window);
+    }
+
+    /**
+     * Displays the menu and receives the choice from the user.<p>
+     * The choice is sent to the processChoice() method for parsing.<p>
+     * This method will loop until the user chooses to exit.
+     */
+    private void showMenu() {
+        String choice = "";
+        while (!choice.equals("x")) {
+            if(!game.isRunning()){
+                window.clearRegions();
+                if (hunter.treasuresFull()) {
+                    window.addTextToWindow("\n"+"Wow, you've found every treasure in this realm!");
+                    window.addTextToWindow("\n");
+                    window.addTextToWindow("\nYou return home, riches and treasure in hand. You leave your trusty shovel by the door, curling up into your chair by the fireplace.",Colors.cyan);
+                    window.addTextToWindow("\n"+"But one day, perhaps more treasures will arise, waiting to be found by a brave adventurer...");
+                    window.addTextToWindow("\n\n\nTHE END",Colors.green);
+                } else {
+                    window.addTextToWindow("\n\nYou didn't have enough gold to pay off your losses, and you lose the game.",Colors.red);
+                }
+                break;
+            }
+            // only the regions that changed since last turn get redrawn
+            window.beginRegion(Screen.Region.NEWS);
+            window.addTextToWindow("\n"+currentTown.getLatestNews());
+            window.addTextToWindow("\n"+"**********");
+            window.addTextToWindow("\n");
+            window.endRegion();
+            window.beginRegion(Screen.Region.STATUS);
+            hunter.infoString();
+            window.addTextToWindow("\n\n");
+            window.endRegion();
+            window.beginRegion(Screen.Region.TOWN);
+            currentTown.infoString();
+            window.endRegion();
+            window.beginRegion(Screen.Region.MENU);
+            window.addTextToWindow("\n\n(B)uy something at the shop.",Colors.purple);
+            window.addTextToWindow("\n(S)ell something at the shop.",Colors.green);
+            window.addTextToWindow("\n(E)xplore surrounding terrain.",Colors.blue);
+            window.addTextToWindow("\n(M)ove on to a different town.",Colors.cyan);
+            window.addTextToWindow("\n(L)ook for trouble!",Colors.red);
+            window.addTextToWindow("\n(H)unt for treasure!",Colors.yellow);
+            window.addTextToWindow("\n(D)ig for gold",Colors.brightYellow);
+            window.addTextToWindow("\nGive up the hunt and e(X)it.");
+            window.addTextToWindow("\n");
+            window.addTextToWindow("What's your next move? ");
+            window.endRegion();
+            choice = input.nextLowerCase("x"); // running out of input ends the game
+            turns++;
+            window.clear();
+            processChoice(choice);
+            if (choice.equals("x")) {
+                window.clearRegions();
+            }
+        }
+        recordResult();
+    }
+
+    /**
+     * Adds the finished game to the leaderboard, if the game has one.
+     */
+    private void recordResult() {
+        Leaderboard leaderboard = game.getLeaderboard();
+        if (leaderboard == null) {
+            return;
+        }
+        GameResult.Outcome outcome;
+        if (game.isRunning()) {
+            outcome = GameResult.Outcome.QUIT;
+        } else if (hunter.treasuresFull()) {
+            outcome = GameResult.Outcome.WON;
+        } else {
+            outcome = GameResult.Outcome.LOST;
+        }
+        leaderboard.add(new GameResult(hunter.getHunterName(), mode, outcome, hunter.getGold(), turns, System.currentTimeMillis()));
+    }
+
+    /**
+     * Takes the choice received from the menu and calls the appropriate method to carry out the instructions.
+     * @param choice The action to process.
+     */
+    private void processChoice(String choice) {
+        window.clear();
+        game.getEventLog().record(GameEvent.COMMAND, choice.isEmpty() ? 0 : choice.charAt(0), 0);
+        if (choice.equals("b") || choice.equals("s")) {
+            window.clearRegions(); // the shop asks its own questions, so the menu mustn't stay up asking for a move
+            currentTown.enterShop(choice, input);
+        } else if (choice.equals("e")) {
+            window.addTextToWindow("\n"+currentTown.getTerrain().infoString());
+            if (world != null) {
+                showNearestTreasure();
+            }
+        } else if (choice.equals("m")) {
+            if (currentTown.leaveTown()) {
+                // This town is going away so print its news ahead of time.
+                window.addTextToWindow("\n"+currentTown.getLatestNews());
+                if (world != null) {
+                    world.update(townId, currentTown);
+                    long[] roads = world.getNeighbours(townId);
+                    townId = roads[random.nextInt(roads.length)];
+                }
+                enterTown();
+            }
+        } else if (choice.equals("l")) {
+            currentTown.lookForTrouble();
+            if (currentTown.isHunterBroke()) {
+                game.endRun(); //the player couldn't pay off the brawl
+            }
+        } else if (choice.equals("h")) {
+            currentTown.huntForTreasure();
+            if (hunter.treasuresFull()) {
+                game.endRun(); //the player gas won
+            }
+        } else if(choice.equals("d")){
+            currentTown.digForGold();
+        } else if (choice.equals("x")) {
+            window.addTextToWindow("\n"+"Fare thee well, " + hunter.getHunterName() + "!");
+            window.addTextToWindow("\n\n\n"+"Close this window to exit.");
+        } else {
+            window.addTextToWindow("\n"+"Yikes! That's an invalid option! Try again.");
+        }
+    }
+}
\ No newline at end of file
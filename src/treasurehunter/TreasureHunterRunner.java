@@ -0,0 +1,60 @@
+package treasurehunter;
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TreasureHunterRunner {
+    public static void main(String[] args) throws IOException {
+        // --terminal plays in the terminal and --window in a Swing window;
+        // without either, the window is used unless there is no display to put it on.
+        // --world keeps the towns in a World, so they stay put and exploring shows the nearest treasure
+        // --balance=FILE plays with the economy BalanceTuner wrote to the file instead of the built-in one
+        boolean terminal = GraphicsEnvironment.isHeadless();
+        boolean worldKept = false;
+        List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--terminal")) {
+                terminal = true;
+            } else if (arg.equals("--window")) {
+                terminal = false;
+            } else if (arg.equals("--world")) {
+                worldKept = true;
+            } else {
+                rest.add(arg);
+            }
+        }
+        Balance balance = Balance.fromOption(rest);
+
+        // an optional seed replays a previous game exactly,
+        // an optional script file is played instead of reading the keyboard ("-" for the keyboard),
+        // and an optional journal file records every event of the game (see JournalReplayer)
+        long seed = rest.size() > 0 ? Long.parseLong(rest.get(0)) : new SplittableRandom().nextLong();
+        InputSource input = ConsoleInput.INSTANCE;
+        if (rest.size() > 1 && !rest.get(1).equals("-")) {
+            input = ScriptInput.fromFile(Paths.get(rest.get(1)));
+        }
+        OutputSink output;
+        if (terminal) {
+            output = new TerminalOutputSink();
+            input = new FlushingInput(input, output); // show each question before waiting for the answer
+        } else {
+            output = new OutputWindow();
+        }
+        GameContext context = new GameContext(seed, input, output);
+        context.setWorldKept(worldKept);
+        context.setBalance(balance);
+        if (rest.size() > 2) {
+            try (EventJournal journal = new EventJournal(Paths.get(rest.get(2)))) {
+                context.setEventLog(journal);
+                new TreasureHunter(context).play();
+            }
+        } else {
+            new TreasureHunter(context).play();
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,539 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * A World is a map of linked towns that stay where they are, so a hunter can come back to a town and find it
+ * as they left it, and can plan a route instead of taking whatever the next town rolls.<p>
+ * Towns are numbered, and each one is rolled the first time it is looked at from the world's seed and its number
+ * alone, with the same rolls a fresh Town would make, along with the numbers of the NEIGHBOURS towns it leads to.
+ * Leaving a town means crossing its terrain, so every road out of a town needs the item for that town's terrain.
+ * A town that has been rolled is kept in a cache of the most recently used ones; the oldest is dropped when the
+ * cache is full and simply rolled again, the same as before, if it is needed again. What hunters change about a
+ * town (searched, dug) can't be rolled again, so it is kept apart from the cache for as long as the world lasts:
+ * an id and a byte of flags for every changed town, in an open addressing table that is never more than half full.<p>
+ * findTreasure() answers "what is the cheapest way to a treasure I haven't got?" with Dijkstra's algorithm over
+ * (town, kit) pairs, where the only thing that costs anything is buying the item to leave a town. Answers are
+ * cached per town, kit, treasures and kit capacity. Searching a town only drops the answers that led to it: every
+ * other answer still leads to a treasure, and nothing nearer has turned up. A World belongs to one game and is not
+ * thread safe.
+ */
+
+public class World {
+    public static final int DEFAULT_CACHED_TOWNS = 1 << 16;
+    // the town every hunter starts in
+    public static final long HOME = 0;
+    // how many roads lead out of every town
+    private static final int NEIGHBOURS = 3;
+    // town numbers are 40 bits, leaving room for a kit of 8 bits in a search state
+    private static final int TOWN_BITS = 40;
+    private static final int KIT_BITS = 8;
+    // a search step's priority is its gold, then the roads travelled in the low bits
+    private static final int ROAD_BITS = 24;
+    // how many (town, kit) pairs one search looks at before giving up
+    private static final int MAX_EXPANDED = 10_000;
+    private static final int CACHED_ROUTES = 1 << 16;
+    // the Town.pack() flags a hunter can change, searched and dug; going broke belongs to the hunter
+    private static final int CHANGED_FLAGS = 2 | 4;
+    private static final int SEARCHED = 2;
+    private static final long TOWN_SEED_STRIDE = 0x9e3779b97f4a7c15L;
+    private static final Route NO_ROUTE = new Route(new long[0], 0, 0, null);
+
+    // instance variables
+    private long seed;
+    private double toughness;
+    private PriceCatalog prices;
+    private Map<Long, Node> towns;
+    private TownFlags changedTowns = new TownFlags();
+    private Map<Long, Route> routes;
+    private long townsRolled;
+    private long routeHits;
+    private long routeMisses;
+
+    /**
+     * @param seed The seed every town is rolled from.
+     * @param toughness The chance of a tough town.
+     * @param prices What every shop in the world charges, for pricing routes.
+     * @param cachedTowns How many rolled towns are kept before the least recently used is dropped.
+     */
+    public World(long seed, double toughness, PriceCatalog prices, int cachedTowns) {
+        this.seed = seed;
+        this.toughness = toughness;
+        this.prices = prices;
+        towns = new LinkedHashMap<>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Node> eldest) {
+                return size() > cachedTowns;
+            }
+        };
+        routes = new LinkedHashMap<>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Route> eldest) {
+                return size() > CACHED_ROUTES;
+            }
+        };
+    }
+
+    /**
+     * Writes what makes this world what it is: its seed, and every town hunters have changed.
+     * Everything else is rolled again from the seed.
+     *
+     * @param out Where the world is written.
+     */
+    public void save(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeInt(changedTowns.size());
+        changedTowns.save(out);
+    }
+
+    /**
+     * Reads back a world written by save().
+     *
+     * @param in Where the world is read from.
+     * @param toughness The chance of a tough town.
+     * @param prices What every shop in the world charges, for pricing routes.
+     * @param cachedTowns How many rolled towns are kept before the least recently used is dropped.
+     * @return The world.
+     */
+    public static World load(DataInput in, double toughness, PriceCatalog prices, int cachedTowns) throws IOException {
+        World world = new World(in.readLong(), toughness, prices, cachedTowns);
+        int changed = in.readInt();
+        if (changed < 0) {
+            throw new IOException("Bad count of changed towns " + changed + " in saved world");
+        }
+        for (int i = 0; i < changed; i++) {
+            long id = in.readLong();
+            int flags = in.readUnsignedByte();
+            if (id < 0 || id >= 1L << TOWN_BITS || (flags & ~CHANGED_FLAGS) != 0) {
+                throw new IOException("Bad town " + id + " with flags " + flags + " in saved world");
+            }
+            world.changedTowns.put(id, flags);
+        }
+        return world;
+    }
+
+    /**
+     * A town as it was rolled: packed as by Town.pack(), and the towns its roads lead to.
+     */
+    private static class Node {
+        private int town;
+        private long[] neighbours;
+
+        Node(int town, long[] neighbours) {
+            this.town = town;
+            this.neighbours = neighbours;
+        }
+    }
+
+    /**
+     * @return the town from the cache, or rolled again from the seed.
+     */
+    private Node node(long id) {
+        Node node = towns.get(id);
+        if (node == null) {
+            SplittableRandom random = new SplittableRandom(seed + id * TOWN_SEED_STRIDE);
+            // the shop plays no part in rolling a town, and is added when the town is entered
+            int town = new Town(null, toughness, false, random, NullOutputSink.INSTANCE).pack();
+            long[] neighbours = new long[NEIGHBOURS];
+            for (int i = 0; i < NEIGHBOURS; i++) {
+                neighbours[i] = random.nextLong() >>> (Long.SIZE - TOWN_BITS);
+            }
+            node = new Node(town, neighbours);
+            towns.put(id, node);
+            townsRolled++;
+        }
+        return node;
+    }
+
+    /**
+     * @return the town packed as by Town.pack(), with whatever hunters have changed about it.
+     */
+    int getTown(long id) {
+        return node(id).town | changedTowns.get(id) << Town.PACKED_FLAGS_SHIFT;
+    }
+
+    /**
+     * @return the terrain around the town, which every road out of it crosses.
+     */
+    public Terrain getTerrain(long id) {
+        return Town.TERRAINS[getTown(id) & 7];
+    }
+
+    public Treasure getTreasure(long id) {
+        return Treasure.values()[(getTown(id) >>> Town.PACKED_TREASURE_SHIFT) & 3];
+    }
+
+    public boolean isSearched(long id) {
+        return (getTown(id) >>> Town.PACKED_FLAGS_SHIFT & 2) != 0;
+    }
+
+    /**
+     * @return the towns the roads out of this one lead to.
+     */
+    public long[] getNeighbours(long id) {
+        return node(id).neighbours.clone();
+    }
+
+    /**
+     * Builds the live town for a hunter to play in; call hunterArrives() on it to welcome them.
+     *
+     * @param id The town's number.
+     * @param sh The town's shop.
+     * @param hunter The hunter arriving.
+     * @param easyMode Whether the game is being played in easy mode.
+     * @param random The game's random source.
+     * @param win Where the town's messages are shown.
+     * @return The town as it was rolled, or as it was left.
+     */
+    public Town enter(long id, Shop sh, Hunter hunter, boolean easyMode, SplittableRandom random, OutputSink win) {
+        return Town.unpack(getTown(id), sh, hunter, easyMode, random, win);
+    }
+
+    /**
+     * Keeps what a hunter has done in a town for the next visit, and for finding treasure.
+     *
+     * @param id The town's number.
+     * @param town The live town enter() built.
+     */
+    public void update(long id, Town town) {
+        int flags = town.pack() >>> Town.PACKED_FLAGS_SHIFT & CHANGED_FLAGS; // going broke belongs to the hunter
+        int before = changedTowns.get(id);
+        if (flags == before) {
+            return;
+        }
+        changedTowns.put(id, flags);
+        if (((flags ^ before) & SEARCHED) != 0) {
+            if ((flags & SEARCHED) != 0) {
+                routes.values().removeIf(route -> route.leadsTo(id));
+            } else {
+                routes.clear(); // a treasure is back to be found, and might be nearer than any route
+            }
+        }
+    }
+
+    /**
+     * Finds the cheapest way from a town to a treasure the hunter hasn't got, in a town nobody has searched yet:
+     * the least gold spent on items to cross terrain, then the fewest roads. Items the hunter already has are
+     * never bought again, nothing is sold, and items breaking on the way aren't allowed for.
+     *
+     * @param from The town the hunter is in.
+     * @param hunter The hunter, for their kit, treasures and kit capacity.
+     * @return The route, or null if no treasure can be reached within MAX_EXPANDED steps of searching
+     * (see Route.isAffordable() for whether the hunter has the gold for it).
+     */
+    public Route findTreasure(long from, Hunter hunter) {
+        int kit = hunter.getKit() & ((1 << KIT_BITS) - 1);
+        long key = from | (long) kit << TOWN_BITS | (long) hunter.getTreasures() << (TOWN_BITS + KIT_BITS)
+                | (long) Math.min(hunter.getKitCapacity(), 15) << (TOWN_BITS + KIT_BITS + 4);
+        Route route = routes.get(key);
+        if (route != null) {
+            routeHits++;
+        } else {
+            routeMisses++;
+            route = search(from, kit, hunter.getTreasures(), hunter.getKitCapacity());
+            routes.put(key, route);
+        }
+        return route == NO_ROUTE ? null : route;
+    }
+
+    private Route search(long from, int kit, int treasures, int kitCapacity) {
+        // each entry is {priority, state}, where a state is a town and a kit packed as town << KIT_BITS | kit
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+        Map<Long, Long> best = new HashMap<>();
+        Map<Long, Long> cameFrom = new HashMap<>();
+        long start = from << KIT_BITS | kit;
+        best.put(start, 0L);
+        queue.add(new long[] {0, start});
+        for (int expanded = 0; !queue.isEmpty() && expanded < MAX_EXPANDED; expanded++) {
+            long[] entry = queue.poll();
+            long priority = entry[0];
+            long state = entry[1];
+            if (best.get(state) < priority) {
+                continue; // already reached more cheaply
+            }
+            long town = state >>> KIT_BITS;
+            int stateKit = (int) state & ((1 << KIT_BITS) - 1);
+            int packed = getTown(town);
+            Treasure treasure = Treasure.values()[(packed >>> Town.PACKED_TREASURE_SHIFT) & 3];
+            if (treasure.isCollectible() && (treasures & treasure.getBit()) == 0 && (packed >>> Town.PACKED_FLAGS_SHIFT & 2) == 0) {
+                return route(state, start, cameFrom, (int) (priority >>> ROAD_BITS), stateKit & ~kit, treasure);
+            }
+            Item needed = Town.TERRAINS[packed & 7].getNeededItem();
+            if ((stateKit & needed.getBit()) == 0) {
+                // every shop charges the same, so the item is never cheaper to buy anywhere but where it is needed
+                int price = prices.getBuyPrice(needed);
+                if (price != PriceCatalog.NOT_SOLD && Integer.bitCount(stateKit) < kitCapacity) {
+                    relax(queue, best, cameFrom, state, town << KIT_BITS | stateKit | needed.getBit(),
+                            priority + ((long) price << ROAD_BITS));
+                }
+            } else {
+                for (long next : node(town).neighbours) {
+                    relax(queue, best, cameFrom, state, next << KIT_BITS | stateKit, priority + 1);
+                }
+            }
+        }
+        return NO_ROUTE;
+    }
+
+    private static void relax(PriorityQueue<long[]> queue, Map<Long, Long> best, Map<Long, Long> cameFrom,
+                              long state, long next, long priority) {
+        Long known = best.get(next);
+        if (known == null || priority < known) {
+            best.put(next, priority);
+            cameFrom.put(next, state);
+            queue.add(new long[] {priority, next});
+        }
+    }
+
+    /**
+     * @return the route to the given state, with each town once however many items were bought there.
+     */
+    private static Route route(long state, long start, Map<Long, Long> cameFrom, int cost, int itemsToBuy, Treasure treasure) {
+        List<Long> towns = new ArrayList<>();
+        for (long at = state; ; at = cameFrom.get(at)) {
+            long town = at >>> KIT_BITS;
+            if (towns.isEmpty() || towns.get(towns.size() - 1) != town) {
+                towns.add(town);
+            }
+            if (at == start) {
+                break;
+            }
+        }
+        Collections.reverse(towns);
+        return new Route(towns.stream().mapToLong(Long::longValue).toArray(), cost, itemsToBuy, treasure);
+    }
+
+    // accessors
+    public long getTownsRolled() {
+        return townsRolled;
+    }
+
+    public int getTownsCached() {
+        return towns.size();
+    }
+
+    public int getTownsChanged() {
+        return changedTowns.size();
+    }
+
+    public long getRouteHits() {
+        return routeHits;
+    }
+
+    public long getRouteMisses() {
+        return routeMisses;
+    }
+
+    /**
+     * The way to a treasure found by findTreasure(). A Route never changes.
+     */
+    public static class Route {
+        // instance variables
+        private long[] towns;
+        private int cost;
+        private int itemsToBuy;
+        private Treasure treasure;
+
+        Route(long[] towns, int cost, int itemsToBuy, Treasure treasure) {
+            this.towns = towns;
+            this.cost = cost;
+            this.itemsToBuy = itemsToBuy;
+            this.treasure = treasure;
+        }
+
+        /**
+         * @return the towns on the way, from the one the hunter is in to the one with the treasure.
+         */
+        public long[] getTowns() {
+            return towns.clone();
+        }
+
+        public int getRoads() {
+            return towns.length - 1;
+        }
+
+        /**
+         * @return the gold spent on items along the way.
+         */
+        public int getCost() {
+            return cost;
+        }
+
+        /**
+         * @return the items bought along the way, as a bitmask with one bit per Item.
+         */
+        public int getItemsToBuy() {
+            return itemsToBuy;
+        }
+
+        public Treasure getTreasure() {
+            return treasure;
+        }
+
+        public boolean isAffordable(int gold) {
+            return cost <= gold;
+        }
+
+        /**
+         * @return true if the route ends in the given town.
+         */
+        boolean leadsTo(long town) {
+            return towns.length > 0 && towns[towns.length - 1] == town;
+        }
+
+        public String toString() {
+            return treasure + " " + getRoads() + " roads away for " + cost + " gold " + Arrays.toString(towns);
+        }
+    }
+
+    /**
+     * Measures finding treasure from towns all over a world, first with nothing cached and then again
+     * with the answers cached.<p>
+     * Arguments (all optional): how many searches (default 50000), mode (e/n/h/s, default n),
+     * towns kept in the cache (default 65536), seed (default 42).
+     */
+    public static void main(String[] args) {
+        int searches = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        GameMode mode = GameMode.fromChoice(args.length > 1 ? args[1].toLowerCase() : "n");
+        int cachedTowns = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CACHED_TOWNS;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        World world = new World(seed, mode.getToughness(), mode.getPrices(), cachedTowns);
+        SplittableRandom random = new SplittableRandom(seed);
+        // hunters scattered by random walks from home, each carrying a random kit and treasures
+        long[] from = new long[searches];
+        Hunter[] hunters = new Hunter[searches];
+        for (int i = 0; i < searches; i++) {
+            long town = HOME;
+            for (int steps = random.nextInt(20); steps > 0; steps--) {
+                long[] neighbours = world.getNeighbours(town);
+                town = neighbours[random.nextInt(neighbours.length)];
+            }
+            from[i] = town;
+            hunters[i] = new Hunter("bot", 0, mode.getInventoryCapacity(), NullOutputSink.INSTANCE);
+            for (Terrain terrain : Town.TERRAINS) {
+                if (random.nextInt(3) == 0) {
+                    hunters[i].buyItem(terrain.getNeededItem(), 0);
+                }
+            }
+            for (Treasure treasure : Treasure.values()) {
+                // a hunter with every treasure has already won
+                if (treasure.isCollectible() && random.nextInt(3) == 0 && Integer.bitCount(hunters[i].getTreasures()) < Hunter.TREASURE_CAPACITY - 1) {
+                    hunters[i].addTreasure(treasure);
+                }
+            }
+        }
+        for (int pass = 1; pass <= 2; pass++) {
+            long rolledBefore = world.getTownsRolled();
+            long roads = 0;
+            long cost = 0;
+            int found = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < searches; i++) {
+                Route route = world.findTreasure(from[i], hunters[i]);
+                if (route != null) {
+                    found++;
+                    roads += route.getRoads();
+                    cost += route.getCost();
+                }
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / searches;
+            System.out.printf("pass %d: %,d searches, %.2f us each, %,d found (mean %.1f roads, %.1f gold), %,d towns rolled, %,d cached%n",
+                    pass, searches, micros, found, roads / (double) Math.max(1, found), cost / (double) Math.max(1, found),
+                    world.getTownsRolled() - rolledBefore, world.getTownsCached());
+        }
+        System.out.printf("route cache: %,d hits, %,d misses%n", world.getRouteHits(), world.getRouteMisses());
+    }
+
+    /**
+     * The searched and dug flags of every town that has any, in an open addressing table from town ids to flags
+     * that only ever grows. Ids are stored plus one, so that 0 marks an empty slot; a town whose flags go back to
+     * none keeps its slot with flags 0, so that nothing ever has to be moved.
+     */
+    private static class TownFlags {
+        private static final int INITIAL_SLOTS = 64;
+
+        // instance variables
+        private long[] ids = new long[INITIAL_SLOTS];
+        private byte[] flags = new byte[INITIAL_SLOTS];
+        private int used; // slots holding an id, flags or not
+        private int size; // slots holding flags
+
+        int get(long id) {
+            int slot = find(id);
+            return ids[slot] == 0 ? 0 : flags[slot];
+        }
+
+        void put(long id, int townFlags) {
+            int slot = find(id);
+            if (ids[slot] == 0) {
+                if (townFlags == 0) {
+                    return;
+                }
+                if (2 * (used + 1) > ids.length) {
+                    grow();
+                    slot = find(id);
+                }
+                ids[slot] = id + 1;
+                used++;
+            }
+            size += (townFlags != 0 ? 1 : 0) - (flags[slot] != 0 ? 1 : 0);
+            flags[slot] = (byte) townFlags;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Writes every town with flags as its id and then its flags.
+         */
+        void save(DataOutput out) throws IOException {
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (flags[slot] != 0) {
+                    out.writeLong(ids[slot] - 1);
+                    out.writeByte(flags[slot]);
+                }
+            }
+        }
+
+        /**
+         * @return the slot holding the id, or the empty slot it would go in.
+         */
+        private int find(long id) {
+            int mask = ids.length - 1;
+            long h = (id + 1) * 0x9E3779B97F4A7C15L;
+            for (int slot = (int) (h ^ (h >>> 32)) & mask; ; slot = (slot + 1) & mask) {
+                if (ids[slot] == id + 1 || ids[slot] == 0) {
+                    return slot;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldIds = ids;
+            byte[] oldFlags = flags;
+            ids = new long[oldIds.length * 2];
+            flags = new byte[oldIds.length * 2];
+            used = 0;
+            for (int slot = 0; slot < oldIds.length; slot++) {
+                if (oldFlags[slot] != 0) { // towns back to no flags are dropped as the table grows
+                    int to = find(oldIds[slot] - 1);
+                    ids[to] = oldIds[slot];
+                    flags[to] = oldFlags[slot];
+                    used++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a Balance is only ever tuned when one is loaded, and that it reads, writes and plays what it says.
+ */
+
+public class BalanceTest {
+    private static Balance load(String properties) throws IOException {
+        Path file = Files.createTempFile("balance", ".properties");
+        try {
+            Files.writeString(file, properties);
+            return Balance.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void builtInBalanceIsEveryModesOwn() {
+        for (GameMode mode : GameMode.values()) {
+            Economy economy = Balance.BUILT_IN.getEconomy(mode);
+            assertEquals(mode.getStartingGold(), economy.getStartingGold());
+            assertEquals(mode.getToughness(), economy.getToughness());
+            assertEquals(mode.getMarkdown(), economy.getMarkdown());
+            for (Item item : Item.values()) {
+                assertEquals(mode.getPrices().getBuyPrice(item), economy.getPrices().getBuyPrice(item));
+                assertEquals(mode.getPrices().getSellPrice(item), economy.getPrices().getSellPrice(item));
+            }
+        }
+        assertTrue(Balance.BUILT_IN.isBuiltIn());
+        assertNull(Balance.BUILT_IN.getFile());
+        assertSame(Balance.BUILT_IN, new GameContext(0, new ScriptInput(), NullOutputSink.INSTANCE).getBalance());
+    }
+
+    @Test
+    public void loadKeepsWhatTheFileLeavesOut() throws IOException {
+        Balance balance = load("normal.startingGold=30\nnormal.priceScale=2\nhard.toughness=0.5\n");
+        Economy normal = balance.getEconomy(GameMode.NORMAL);
+        assertEquals(30, normal.getStartingGold());
+        assertEquals(GameMode.NORMAL.getToughness(), normal.getToughness());
+        assertEquals(2 * GameMode.NORMAL.getPrices().getBuyPrice(Item.BOAT), normal.getPrices().getBuyPrice(Item.BOAT));
+        assertEquals(0.5, balance.getEconomy(GameMode.HARD).getToughness());
+        assertEquals(Balance.BUILT_IN.getEconomy(GameMode.EASY), balance.getEconomy(GameMode.EASY));
+        assertFalse(balance.isBuiltIn());
+    }
+
+    @Test
+    public void loadRejectsWhatIsNotANumber() {
+        assertThrows(IOException.class, () -> load("normal.toughness=tough\n"));
+    }
+
+    @Test
+    public void writeAndReadRoundTrip() throws IOException {
+        Balance balance = load("samurai.startingGold=12\nsamurai.markdown=0.125\neasy.priceScale=0.75\n");
+        for (Balance written : new Balance[] {balance, Balance.BUILT_IN}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            written.write(new DataOutputStream(bytes));
+            Balance read = Balance.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            for (GameMode mode : GameMode.values()) {
+                assertEquals(written.getEconomy(mode), read.getEconomy(mode));
+            }
+        }
+    }
+
+    @Test
+    public void optionIsTakenOutOfTheCommandLine() throws IOException {
+        Path file = Files.createTempFile("balance", ".properties");
+        try {
+            Files.writeString(file, "normal.startingGold=25\n");
+            List<String> args = new ArrayList<>(List.of("1000", Balance.OPTION + file, "n"));
+            Balance balance = Balance.fromOption(args);
+            assertEquals(List.of("1000", "n"), args);
+            assertEquals(file, balance.getFile());
+            assertEquals(25, balance.getEconomy(GameMode.NORMAL).getStartingGold());
+        } finally {
+            Files.delete(file);
+        }
+        List<String> args = new ArrayList<>(List.of("1000", "n"));
+        assertSame(Balance.BUILT_IN, Balance.fromOption(args));
+        assertEquals(2, args.size());
+    }
+
+    @Test
+    public void gamesStartWithTheirEconomysGold() throws IOException {
+        Balance balance = load("hard.startingGold=77\n");
+        GameContext context = new GameContext(1, new ScriptInput("bot", "h", "x"), NullOutputSink.INSTANCE);
+        context.setBalance(balance);
+        TreasureHunter game = new TreasureHunter(context);
+        game.play();
+        assertEquals(77, game.getHunter().getGold());
+    }
+}
@@ -0,0 +1,137 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks ConcurrentLongDoubleMap on one thread and with many threads putting and getting at once.
+ */
+
+public class ConcurrentLongDoubleMapTest {
+    private static final int THREADS = 8;
+
+    private static double valueOf(long key) {
+        return key * 0.5 - 3;
+    }
+
+    /**
+     * Runs the task on THREADS threads, all starting at once, and fails if any of them does.
+     */
+    private static void onEveryThread(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    public void getsWhatWasPut() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(100);
+        assertTrue(Double.isNaN(map.get(5)));
+        map.put(5, 1.25);
+        map.put(-7, 0);
+        map.put(5, -2.5); // the last value wins
+        assertEquals(-2.5, map.get(5));
+        assertEquals(0.0, map.get(-7));
+        assertTrue(Double.isNaN(map.get(6)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void keepsToItsCapacity() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(10, 3);
+        for (long key = 1; key <= 10; key++) {
+            map.put(key, valueOf(key));
+        }
+        assertThrows(IllegalStateException.class, () -> map.put(11, 1));
+        map.put(4, 99); // keys already in the map can still be written
+        assertEquals(99.0, map.get(4));
+        assertEquals(10, map.size());
+        for (long key = 1; key <= 10; key++) {
+            if (key != 4) {
+                assertEquals(valueOf(key), map.get(key));
+            }
+        }
+    }
+
+    @Test
+    public void threadsPuttingTheSameKeysAgree() throws Exception {
+        int keys = 50_000;
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(keys, 4);
+        onEveryThread(thread -> {
+            // every thread puts every key, starting from a different place, and checks each one it reads back
+            for (int i = 0; i < keys; i++) {
+                long key = (i + thread * (keys / THREADS)) % keys + 1;
+                map.put(key, valueOf(key));
+                double found = map.get(key);
+                assertEquals(valueOf(key), found);
+            }
+        });
+        assertEquals(keys, map.size());
+        for (long key = 1; key <= keys; key++) {
+            assertEquals(valueOf(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void readersNeverSeeAHalfWrittenValue() throws Exception {
+        int keys = 20_000;
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(keys);
+        onEveryThread(thread -> {
+            for (long key = 1; key <= keys; key++) {
+                if (thread % 2 == 0) {
+                    map.put(key, valueOf(key));
+                } else {
+                    double found = map.get(key);
+                    if (!Double.isNaN(found)) {
+                        assertEquals(valueOf(key), found);
+                    }
+                }
+            }
+        });
+        assertEquals(keys, map.size());
+    }
+
+    @Test
+    public void threadsFillingItStopNearItsCapacity() throws Exception {
+        int capacity = 1000;
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(capacity);
+        onEveryThread(thread -> {
+            for (long key = thread + 1; ; key += THREADS) {
+                try {
+                    map.put(key, valueOf(key));
+                } catch (IllegalStateException e) {
+                    return; // full
+                }
+            }
+        });
+        // each thread can slip one key past the count before it sees the others'
+        assertTrue(map.size() >= capacity && map.size() <= capacity + THREADS, map.size() + " keys");
+    }
+}
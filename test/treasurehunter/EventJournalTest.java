@@ -0,0 +1,66 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a JournalReplayer ends up where the journaled game did, and turns away journals no game could write.
+ */
+
+public class EventJournalTest {
+    private static final String[] LINES = {"bot", "h", "b", "rope", "y", "b", "machete", "y", "m", "h", "d",
+            "l", "m", "s", "rope", "y", "h", "m", "d", "x"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void replayEndsWhereTheGameDid() throws IOException {
+        for (long seed = 0; seed < 20; seed++) {
+            Path file = dir.resolve("game" + seed + ".journal");
+            GameContext context = new GameContext(seed, new ScriptInput(LINES), NullOutputSink.INSTANCE);
+            TreasureHunter game = new TreasureHunter(context);
+            try (EventJournal journal = new EventJournal(file)) {
+                context.setEventLog(journal);
+                game.play();
+            }
+
+            JournalReplayer replayer = JournalReplayer.replay(file);
+            Hunter played = game.getHunter();
+            Hunter replayed = replayer.getHunter();
+            assertEquals(GameMode.HARD, replayer.getMode());
+            assertEquals(1, replayer.getGames());
+            assertEquals(played.getGold(), replayed.getGold());
+            assertEquals(played.getKit(), replayed.getKit());
+            assertEquals(played.getTreasures(), replayed.getTreasures());
+            assertEquals(played.getKitCapacity(), replayed.getKitCapacity());
+            assertNotNull(replayer.getTown());
+        }
+    }
+
+    @Test
+    public void replayRejectsATownNoTerrainNeeds() throws IOException {
+        Path file = dir.resolve("shovel.journal");
+        try (EventJournal journal = new EventJournal(file)) {
+            journal.record(GameEvent.GAME_STARTED, GameMode.NORMAL.ordinal() << 8 | 7, 20);
+            journal.record(GameEvent.TOWN_ENTERED, Item.SHOVEL.ordinal(), 0);
+        }
+        assertThrows(IOException.class, () -> JournalReplayer.replay(file));
+    }
+
+    @Test
+    public void replayRejectsEventsBeforeAGame() throws IOException {
+        Path file = dir.resolve("headless.journal");
+        try (EventJournal journal = new EventJournal(file)) {
+            journal.record(GameEvent.GOLD_CHANGED, 0, 5);
+        }
+        assertThrows(IOException.class, () -> JournalReplayer.replay(file));
+    }
+}
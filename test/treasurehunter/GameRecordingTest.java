@@ -0,0 +1,81 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that recorded games play out again exactly as they were recorded, before and after being written out
+ * and with the balance they were recorded with, and that a recording that doesn't match its game is caught
+ * at the first step that differs.
+ */
+
+public class GameRecordingTest {
+    private static final String[] LINES = {"bot", "n", "b", "rope", "y", "m", "h", "d", "l", "s", "rope", "y", "m", "h", "x"};
+
+    @Test
+    public void replayMatchesTheRecordedGame() {
+        for (long seed = 0; seed < 20; seed++) {
+            GameRecording recording = GameRecording.record(seed, new ScriptInput(LINES), NullOutputSink.INSTANCE);
+            assertEquals(-1, recording.replay());
+        }
+    }
+
+    @Test
+    public void writeAndReadRoundTrip() throws IOException {
+        GameRecording recording = GameRecording.record(7, new ScriptInput(LINES), NullOutputSink.INSTANCE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(new DataOutputStream(bytes));
+
+        GameRecording read = GameRecording.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(recording.getSeed(), read.getSeed());
+        assertEquals(recording.getLineCount(), read.getLineCount());
+        assertEquals(-1, read.replay());
+    }
+
+    @Test
+    public void replayFindsTheFirstStateThatDiffers() throws IOException {
+        GameRecording recording = GameRecording.record(3, new ScriptInput(LINES), NullOutputSink.INSTANCE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(new DataOutputStream(bytes));
+        byte[] written = bytes.toByteArray();
+        written[13] ^= 1; // the first state follows the seed, the built-in balance's flag and the number of lines
+
+        GameRecording tampered = GameRecording.read(new DataInputStream(new ByteArrayInputStream(written)));
+        assertEquals(0, tampered.replay());
+    }
+
+    @Test
+    public void corpusChecksClean() {
+        List<GameRecording> corpus = ReplayCorpus.generate(50, 40, 1);
+        assertEquals(50, corpus.size());
+        assertArrayEquals(new int[0], ReplayCorpus.check(corpus));
+    }
+
+    @Test
+    public void recordingKeepsItsBalance() throws IOException {
+        Path file = Files.createTempFile("balance", ".properties");
+        Files.writeString(file, "normal.startingGold=60\nnormal.toughness=0.9\nnormal.priceScale=0.5\n");
+        Balance tuned = Balance.load(file);
+        Files.delete(file);
+        GameRecording recording = GameRecording.record(5, tuned, new ScriptInput(LINES), NullOutputSink.INSTANCE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(new DataOutputStream(bytes));
+
+        GameRecording read = GameRecording.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertFalse(read.getBalance().isBuiltIn());
+        assertEquals(tuned.getEconomy(GameMode.NORMAL), read.getBalance().getEconomy(GameMode.NORMAL));
+        assertEquals(-1, read.replay());
+    }
+}
@@ -0,0 +1,62 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a hunter comes back the same from save() and load(), and from pack() and unpack().
+ */
+
+public class HunterTest {
+
+    private static Hunter hunterWithEverything() {
+        Hunter hunter = new Hunter("Mr. Turner", 1234, 8, NullOutputSink.INSTANCE);
+        hunter.buyItem(Item.ROPE, 4);
+        hunter.buyItem(Item.BOAT, 20);
+        hunter.buyItem(Item.SWORD, 0);
+        hunter.addTreasure(Treasure.CROWN);
+        hunter.addTreasure(Treasure.GEM);
+        return hunter;
+    }
+
+    private static void assertSameHunter(Hunter expected, Hunter actual) {
+        assertEquals(expected.getHunterName(), actual.getHunterName());
+        assertEquals(expected.getGold(), actual.getGold());
+        assertEquals(expected.getKit(), actual.getKit());
+        assertEquals(expected.getTreasures(), actual.getTreasures());
+        assertEquals(expected.getKitCapacity(), actual.getKitCapacity());
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() throws IOException {
+        Hunter hunter = hunterWithEverything();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hunter.save(new DataOutputStream(bytes));
+
+        Hunter loaded = Hunter.load(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), NullOutputSink.INSTANCE);
+        assertSameHunter(hunter, loaded);
+    }
+
+    @Test
+    public void packAndUnpackRoundTrip() {
+        Hunter hunter = hunterWithEverything();
+        Hunter unpacked = Hunter.unpack(hunter.pack(), hunter.getHunterName(), NullOutputSink.INSTANCE);
+        assertSameHunter(hunter, unpacked);
+    }
+
+    @Test
+    public void packKeepsAllTheGoldAndIgnoresHighBits() {
+        Hunter hunter = new Hunter("bot", Integer.MAX_VALUE, 7, NullOutputSink.INSTANCE);
+        long bits = hunter.pack() | -1L << Hunter.PACKED_BITS;
+        Hunter unpacked = Hunter.unpack(bits, "bot", NullOutputSink.INSTANCE);
+        assertEquals(hunter.getGold(), unpacked.getGold());
+        assertEquals(7, unpacked.getKitCapacity());
+    }
+}
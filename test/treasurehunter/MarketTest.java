@@ -0,0 +1,124 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the Market moves prices the way trades push them, and counts every trade made on many threads at once.
+ */
+
+public class MarketTest {
+    private static final int THREADS = 8;
+
+    @Test
+    public void pricesStartAtTheCatalogs() {
+        Market market = new Market();
+        for (Item item : Item.values()) {
+            assertEquals(1.0, market.getFactor(item));
+            assertEquals(17, market.adjust(item, 17));
+        }
+    }
+
+    @Test
+    public void buyingRaisesAndSellingLowersPrices() {
+        Market market = new Market();
+        for (int i = 0; i < 200; i++) {
+            market.recordPurchase(Item.ROPE);
+            market.recordSale(Item.BOAT);
+        }
+        market.tick();
+        assertTrue(market.getFactor(Item.ROPE) > 1);
+        assertTrue(market.adjust(Item.ROPE, 100) > 100);
+        assertTrue(market.getFactor(Item.BOAT) < 1);
+        assertTrue(market.adjust(Item.BOAT, 100) < 100);
+        assertEquals(1.0, market.getFactor(Item.HORSE));
+    }
+
+    @Test
+    public void pricesStayWithinTheirBounds() {
+        Market market = new Market();
+        for (int tick = 0; tick < 50; tick++) {
+            for (int i = 0; i < 10_000; i++) {
+                market.recordPurchase(Item.ROPE);
+                market.recordSale(Item.BOAT);
+            }
+            market.tick();
+        }
+        assertTrue(market.getFactor(Item.ROPE) <= 1.5);
+        assertTrue(market.getFactor(Item.BOAT) >= 0.5);
+        assertEquals(1, market.adjust(Item.BOAT, 1)); // never drops to nothing
+    }
+
+    @Test
+    public void freeAndUnsoldItemsStayPut() {
+        Market market = new Market();
+        for (int i = 0; i < 1000; i++) {
+            market.recordPurchase(Item.SWORD);
+        }
+        market.tick();
+        assertEquals(0, market.adjust(Item.SWORD, 0));
+        assertEquals(PriceCatalog.NOT_SOLD, market.adjust(Item.SWORD, PriceCatalog.NOT_SOLD));
+    }
+
+    @Test
+    public void oldTradesFadeAway() {
+        Market market = new Market();
+        for (int i = 0; i < 500; i++) {
+            market.recordPurchase(Item.MACHETE);
+        }
+        market.tick();
+        double moved = market.getFactor(Item.MACHETE);
+        for (int tick = 0; tick < 200; tick++) {
+            market.tick();
+        }
+        assertTrue(market.getFactor(Item.MACHETE) < moved);
+        assertEquals(1.0, market.getFactor(Item.MACHETE));
+    }
+
+    @Test
+    public void tradesOnManyThreadsAreAllCounted() throws Exception {
+        int tradesPerThread = 10_000;
+        Market shared = new Market();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < tradesPerThread; i++) {
+                    shared.recordPurchase(Item.HORSE);
+                    if (i % 4 == 0) {
+                        shared.recordSale(Item.HORSE);
+                    }
+                    shared.adjust(Item.HORSE, 12); // reading a price never waits on the trades
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+        shared.tick();
+
+        Market alone = new Market();
+        for (int i = 0; i < THREADS * tradesPerThread; i++) {
+            alone.recordPurchase(Item.HORSE);
+            if (i % 4 == 0) {
+                alone.recordSale(Item.HORSE);
+            }
+        }
+        alone.tick();
+        assertEquals(alone.getFactor(Item.HORSE), shared.getFactor(Item.HORSE));
+    }
+}
@@ -0,0 +1,103 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JTextPane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that the Screen only redraws regions that changed, or that its renderer has cut text from.
+ */
+
+public class ScreenTest {
+
+    /**
+     * Counts the regions it is asked to redraw, and reports whatever regions it is told have been trimmed.
+     */
+    private static class CountingRenderer implements RegionRenderer {
+        private List<Integer> replaced = new ArrayList<>();
+        private int trimmed;
+
+        public void appendToRegion(int region, String text, Color color) {
+        }
+
+        public void replaceRegion(int region, List<Fragment> fragments) {
+            replaced.add(region);
+        }
+
+        public int takeTrimmedRegions() {
+            int regions = trimmed;
+            trimmed = 0;
+            return regions;
+        }
+
+        public void addTextToWindow(String text, Color color) {
+        }
+
+        public void addTextToWindow(String text) {
+        }
+
+        public void clear() {
+        }
+
+        public void flush() {
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    private static void draw(Screen screen, Screen.Region region, String text) {
+        screen.beginRegion(region);
+        screen.addTextToWindow(text);
+        screen.endRegion();
+    }
+
+    @Test
+    public void unchangedRegionIsNotRedrawn() {
+        CountingRenderer renderer = new CountingRenderer();
+        Screen screen = new Screen(renderer);
+        draw(screen, Screen.Region.STATUS, "Gold: 10");
+        draw(screen, Screen.Region.STATUS, "Gold: 10");
+        assertEquals(List.of(Screen.Region.STATUS.ordinal()), renderer.replaced);
+        draw(screen, Screen.Region.STATUS, "Gold: 12");
+        assertEquals(2, renderer.replaced.size());
+    }
+
+    @Test
+    public void trimmedRegionIsRedrawn() {
+        CountingRenderer renderer = new CountingRenderer();
+        Screen screen = new Screen(renderer);
+        draw(screen, Screen.Region.NEWS, "Nothing happened.");
+        draw(screen, Screen.Region.MENU, "(B)uy");
+        renderer.trimmed = 1 << Screen.Region.NEWS.ordinal();
+        draw(screen, Screen.Region.MENU, "(B)uy");
+        draw(screen, Screen.Region.NEWS, "Nothing happened.");
+        assertEquals(List.of(Screen.Region.NEWS.ordinal(), Screen.Region.MENU.ordinal(), Screen.Region.NEWS.ordinal()),
+                renderer.replaced);
+    }
+
+    @Test
+    public void windowReportsTheRegionsItTrims() {
+        OutputWindow window = new OutputWindow(new JTextPane(), 40, 100);
+        window.replaceRegion(Screen.Region.NEWS.ordinal(), List.of(new Fragment("a short line\n", Color.black)));
+        window.drain();
+        assertEquals(0, window.takeTrimmedRegions());
+
+        // too much news for the budget even after the plain text is gone
+        StringBuilder news = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            news.append("news line ").append(i).append('\n');
+        }
+        window.replaceRegion(Screen.Region.NEWS.ordinal(), List.of(new Fragment(news.toString(), Color.black)));
+        window.drain();
+        assertNotEquals(0, window.takeTrimmedRegions() & 1 << Screen.Region.NEWS.ordinal());
+        assertEquals(0, window.takeTrimmedRegions());
+    }
+}
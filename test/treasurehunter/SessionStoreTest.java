@@ -0,0 +1,118 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a game put away with TreasureHunter.save() or SessionStore.park() carries on exactly as it would have,
+ * in the session it is brought back into.
+ */
+
+public class SessionStoreTest {
+    private static final String[] BEFORE = {"b", "rope", "y", "m", "h", "d", "m", "l", "b", "machete", "y", "m"};
+    private static final String[] AFTER = {"h", "m", "d", "s", "rope", "y", "m", "h", "m", "h", "x"};
+
+    /**
+     * A game past its first turns, with the rest of its lines still to come.
+     */
+    private static TreasureHunter gameBeforeTheBreak(long seed, boolean worldKept) {
+        List<String> lines = new ArrayList<>(List.of("bot", "n"));
+        lines.addAll(List.of(BEFORE));
+        GameContext context = new GameContext(seed, new ScriptInput(lines), NullOutputSink.INSTANCE);
+        context.setWorldKept(worldKept);
+        TreasureHunter game = new TreasureHunter(context);
+        game.play(); // runs out of lines, which leaves the game between turns
+        return game;
+    }
+
+    private static void assertSameHunter(Hunter expected, Hunter actual) {
+        assertEquals(expected.getHunterName(), actual.getHunterName());
+        assertEquals(expected.getGold(), actual.getGold());
+        assertEquals(expected.getKit(), actual.getKit());
+        assertEquals(expected.getTreasures(), actual.getTreasures());
+    }
+
+    @Test
+    public void parkedGameCarriesOnLikeASavedOne() throws IOException {
+        for (long seed = 0; seed < 40; seed++) {
+            boolean worldKept = seed % 2 == 0;
+            TreasureHunter saved = gameBeforeTheBreak(seed, worldKept);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            saved.save(new DataOutputStream(bytes));
+            TreasureHunter parked = gameBeforeTheBreak(seed, worldKept);
+            SessionStore store = new SessionStore();
+            int id = store.park(parked);
+            assertTrue(store.isParked(id));
+
+            GameContext restoredContext = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+            TreasureHunter restored = TreasureHunter.restore(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), restoredContext);
+            GameContext resumedContext = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+            TreasureHunter resumed = store.resume(id, resumedContext);
+            assertFalse(store.isParked(id));
+            assertEquals(0, store.size());
+            assertSameHunter(restored.getHunter(), resumed.getHunter());
+
+            restored.resume();
+            resumed.resume();
+            assertSameHunter(restored.getHunter(), resumed.getHunter());
+            assertEquals(restoredContext.isRunning(), resumedContext.isRunning());
+        }
+    }
+
+    @Test
+    public void resumedGameKeepsItsSession() {
+        SessionStore store = new SessionStore();
+        TreasureHunter parked = gameBeforeTheBreak(9, true);
+        Hunter hunter = parked.getHunter();
+        int id = store.park(parked);
+
+        GameContext context = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+        EventLog log = (event, subject, value) -> { };
+        context.setEventLog(log);
+        TreasureHunter resumed = store.resume(id, context);
+        assertSame(context, resumed.getContext());
+        assertSame(log, context.getEventLog());
+        assertEquals(GameMode.NORMAL, context.getMode());
+        assertSame(parked.getWorld(), resumed.getWorld());
+        assertSameHunter(hunter, resumed.getHunter());
+    }
+
+    @Test
+    public void resumeRejectsAFreeId() {
+        SessionStore store = new SessionStore();
+        int id = store.park(gameBeforeTheBreak(1, false));
+        store.resume(id, new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE));
+        assertThrows(IllegalArgumentException.class, () -> store.resume(id, new GameContext(0, new ScriptInput(), NullOutputSink.INSTANCE)));
+    }
+
+    @Test
+    public void discardFreesTheId() {
+        SessionStore store = new SessionStore();
+        int id = store.park(gameBeforeTheBreak(2, true));
+        store.discard(id);
+        assertFalse(store.isParked(id));
+        assertEquals(0, store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.discard(id));
+        assertEquals(id, store.park(gameBeforeTheBreak(3, false))); // the id is handed out again
+    }
+
+    @Test
+    public void namesPackAndUnpack() {
+        for (String name : new String[] {"bot", "mr. turner", "o'hara-sm", "a1"}) {
+            assertEquals(name, SessionStore.unpackName(SessionStore.packName(name)));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that hunters racing through a SharedTown on many threads never take more treasure or gold than it holds.
+ */
+
+public class SharedTownTest {
+    private static final int THREADS = 8;
+    private static final int HUNTERS_PER_THREAD = 500;
+
+    /**
+     * Sends HUNTERS_PER_THREAD hunters through the town on each of THREADS threads, all starting at once.
+     *
+     * @return {treasures found, gold dug}
+     */
+    private static long[] race(SharedTown town) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            results.add(pool.submit(() -> {
+                start.await();
+                long found = 0;
+                long dug = 0;
+                for (int i = 0; i < HUNTERS_PER_THREAD; i++) {
+                    Hunter hunter = new Hunter("bot", 0, 7, NullOutputSink.INSTANCE);
+                    hunter.buyItem(Item.SHOVEL, 0);
+                    SharedTown.Visit visit = town.arrive(hunter, random.split());
+                    if (visit.huntForTreasure()) {
+                        found++;
+                    }
+                    int gold = visit.digForGold();
+                    assertEquals(gold, hunter.getGold());
+                    dug += gold;
+                    visit.leave();
+                }
+                return new long[] {found, dug};
+            }));
+        }
+        start.countDown();
+        long[] total = new long[2];
+        for (Future<long[]> result : results) {
+            long[] counts = result.get();
+            total[0] += counts[0];
+            total[1] += counts[1];
+        }
+        pool.shutdown();
+        return total;
+    }
+
+    @Test
+    public void treasureIsClaimedAtMostItsCount() throws Exception {
+        SharedTown town = new SharedTown(Town.TERRAINS[0], Treasure.GEM, 37, 0, 4);
+        long[] total = race(town);
+        assertEquals(37, total[0]);
+        assertEquals(0, town.getTreasuresLeft());
+        assertEquals(0, town.getOccupants());
+    }
+
+    @Test
+    public void goldPitIsNeverOverdrawn() throws Exception {
+        // far less gold than the hunters would dig, so the pit runs dry while they race for it
+        SharedTown town = new SharedTown(Town.TERRAINS[0], Treasure.DUST, 0, 1001, 4);
+        long[] total = race(town);
+        assertEquals(0, total[0]);
+        assertEquals(1001, total[1]);
+        assertEquals(0, town.getGoldLeft());
+    }
+
+    @Test
+    public void goldPitKeepsWhatIsNotDug() throws Exception {
+        long gold = 1_000_000_000L;
+        SharedTown town = new SharedTown(Town.TERRAINS[0], Treasure.CROWN, 1, gold, 3);
+        long[] total = race(town);
+        assertEquals(1, total[0]);
+        assertEquals(gold, total[1] + town.getGoldLeft());
+        assertTrue(total[1] > 0);
+    }
+
+    @Test
+    public void visitSearchesAndDigsOnce() {
+        SharedTown town = new SharedTown(Town.TERRAINS[0], Treasure.GEM, 2, 1000, 1);
+        Hunter hunter = new Hunter("bot", 0, 7, NullOutputSink.INSTANCE);
+        hunter.buyItem(Item.SHOVEL, 0);
+        SharedTown.Visit visit = town.arrive(hunter, new SplittableRandom(1));
+        assertEquals(1, town.getOccupants());
+        assertTrue(visit.huntForTreasure());
+        assertFalse(visit.huntForTreasure());
+        visit.digForGold();
+        assertEquals(0, visit.digForGold());
+        assertTrue(visit.hasSearched() && visit.hasDug());
+        visit.leave();
+        visit.leave();
+        assertEquals(0, town.getOccupants());
+
+        // a hunter who already has the treasure leaves the last copy for someone else
+        SharedTown.Visit again = town.arrive(hunter, new SplittableRandom(2));
+        assertFalse(again.huntForTreasure());
+        assertEquals(1, town.getTreasuresLeft());
+    }
+
+    @Test
+    public void pitNeedsAStripe() {
+        assertThrows(IllegalArgumentException.class, () -> new SharedTown(Town.TERRAINS[0], Treasure.GEM, 1, 10, 0));
+    }
+}
@@ -0,0 +1,80 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a simulation is reproducible from its seed however its games are split up, and that its stats
+ * add up to the games played.
+ */
+
+public class SimulationTest {
+    private static final int MAX_TURNS = 500;
+
+    /**
+     * Never does anything but look around, so every game runs out of turns.
+     */
+    private static class IdlePolicy implements Policy {
+        public String nextMove(HunterView hunter, TownView town) {
+            return "e";
+        }
+
+        public Item chooseItem(HunterView hunter, TownView town, boolean isBuying) {
+            return null;
+        }
+    }
+
+    private static void assertSameStats(SimulationStats expected, SimulationStats actual) {
+        assertEquals(expected.getGames(), actual.getGames());
+        assertEquals(expected.getWins(), actual.getWins());
+        assertEquals(expected.getLosses(), actual.getLosses());
+        assertEquals(expected.getTimeouts(), actual.getTimeouts());
+        assertEquals(expected.getMeanTurnsToWin(), actual.getMeanTurnsToWin());
+        assertEquals(expected.getMeanGoldAtDeath(), actual.getMeanGoldAtDeath());
+        assertEquals(expected.getTurnsToWinPercentile(0.9), actual.getTurnsToWinPercentile(0.9));
+    }
+
+    @Test
+    public void sameSeedGivesTheSameStats() {
+        // more games than one batch, so the run is split across tasks
+        SimulationStats first = new Simulation(GameMode.NORMAL, new GreedyPolicy(), MAX_TURNS, 42).run(5000);
+        SimulationStats second = new Simulation(GameMode.NORMAL, new GreedyPolicy(), MAX_TURNS, 42).run(5000);
+        assertSameStats(first, second);
+        assertEquals(5000, first.getGames());
+        assertEquals(first.getGames(), first.getWins() + first.getLosses() + first.getTimeouts());
+    }
+
+    @Test
+    public void differentSeedsPlayDifferentGames() {
+        SimulationStats first = new Simulation(GameMode.NORMAL, new GreedyPolicy(), MAX_TURNS, 1).run(5000);
+        SimulationStats second = new Simulation(GameMode.NORMAL, new GreedyPolicy(), MAX_TURNS, 2).run(5000);
+        assertNotEquals(first.getMeanTurnsToWin(), second.getMeanTurnsToWin());
+    }
+
+    @Test
+    public void replayedGameMatchesItself() {
+        Simulation simulation = new Simulation(GameMode.HARD, new GreedyPolicy(), MAX_TURNS, 7);
+        for (long gameSeed = 0; gameSeed < 100; gameSeed++) {
+            assertSameStats(simulation.replayGame(gameSeed), simulation.replayGame(gameSeed));
+        }
+    }
+
+    @Test
+    public void greedyWinRateStaysPut() {
+        // 34.1% over 300000 games with seed 42; 20000 games keep well inside a point of it
+        SimulationStats stats = new Simulation(GameMode.NORMAL, new GreedyPolicy(), MAX_TURNS, 42).run(20000);
+        assertEquals(0.341, stats.getWinRate(), 0.015);
+        assertTrue(stats.getWinRateLow(1.96) < stats.getWinRate() && stats.getWinRate() < stats.getWinRateHigh(1.96));
+    }
+
+    @Test
+    public void idlePolicyTimesOutEveryGame() {
+        SimulationStats stats = new Simulation(GameMode.NORMAL, new IdlePolicy(), 50, 3).run(2000);
+        assertEquals(2000, stats.getTimeouts());
+        assertEquals(0, stats.getWins());
+        assertEquals(0.0, stats.getWinRate());
+    }
+}
@@ -0,0 +1,84 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that every policy in a tournament meets the same towns, whatever it does in them.
+ */
+
+public class TournamentTest {
+    private static final int TOWNS = 8;
+    // plenty of gold and cheap items, so every explorer can always buy its way on
+    private static final Economy RICH = new Economy(GameMode.NORMAL, 200, 0.5, 0.5, 0.25);
+
+    /**
+     * Fights a few times in every town, buys the item it needs to leave and leaves, noting every town it reaches.
+     * It keeps what it has seen, so each explorer plays a single game (see Simulation.replayGame()).
+     */
+    private static class Explorer implements Policy {
+        private int fightsPerTown;
+        private int fightsLeft;
+        private boolean arrived = true;
+        private List<String> towns = new ArrayList<>();
+
+        Explorer(int fightsPerTown) {
+            this.fightsPerTown = fightsPerTown;
+        }
+
+        public String nextMove(HunterView hunter, TownView town) {
+            if (arrived) {
+                towns.add(town.getTerrain().getTerrainName() + (town.isToughTown() ? ", tough" : ", mild"));
+                arrived = false;
+                fightsLeft = fightsPerTown;
+            }
+            if (towns.size() > TOWNS) {
+                return "x";
+            }
+            if (fightsLeft > 0) {
+                fightsLeft--;
+                return "l";
+            }
+            if (!hunter.hasItemInKit(town.getTerrain().getNeededItem())) {
+                return "b";
+            }
+            arrived = true;
+            return "m";
+        }
+
+        public Item chooseItem(HunterView hunter, TownView town, boolean isBuying) {
+            return town.getTerrain().getNeededItem();
+        }
+    }
+
+    private static List<String> explore(int fightsPerTown, long gameSeed) {
+        Explorer explorer = new Explorer(fightsPerTown);
+        new Simulation(RICH, explorer, 200, 0).replayGame(gameSeed);
+        return explorer.towns;
+    }
+
+    @Test
+    public void everyPolicyMeetsTheSameTowns() {
+        for (long gameSeed = 0; gameSeed < 50; gameSeed++) {
+            List<String> peaceful = explore(0, gameSeed);
+            assertEquals(TOWNS + 1, peaceful.size());
+            assertEquals(peaceful, explore(1, gameSeed), "game " + gameSeed);
+            assertEquals(peaceful, explore(2, gameSeed), "game " + gameSeed);
+        }
+    }
+
+    @Test
+    public void everyPolicyPlaysTheSameGames() {
+        List<Policy> policies = List.of(new GreedyPolicy(), new TravellerPolicy());
+        List<Tournament.Entry> entries = new Tournament(GameMode.NORMAL, 500, 42).play(policies, 3000);
+        for (int i = 0; i < policies.size(); i++) {
+            SimulationStats alone = new Simulation(GameMode.NORMAL, policies.get(i), 500, 42).run(3000);
+            assertEquals(alone.getWins(), entries.get(i).getStats().getWins());
+            assertEquals(alone.getMeanTurnsToWin(), entries.get(i).getStats().getMeanTurnsToWin());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a town comes back the same from save() and load(), and from pack() and unpack(),
+ * and that a saved town whose terrain isn't one of Town.TERRAINS is turned away.
+ */
+
+public class TownTest {
+
+    private static Town searchedAndDugTown(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Hunter hunter = new Hunter("bot", 20, 7, NullOutputSink.INSTANCE);
+        hunter.buyItem(Item.SHOVEL, 8);
+        Shop shop = new Shop(GameMode.NORMAL.getPrices(), NullOutputSink.INSTANCE);
+        Town town = new Town(shop, 0.4, false, random, NullOutputSink.INSTANCE);
+        town.hunterArrives(hunter);
+        town.huntForTreasure();
+        town.digForGold();
+        return town;
+    }
+
+    private static byte[] save(Town town) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        town.save(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static Town load(byte[] saved) throws IOException {
+        return Town.load(new DataInputStream(new ByteArrayInputStream(saved)), null, null, false,
+                new SplittableRandom(0), NullOutputSink.INSTANCE);
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() throws IOException {
+        for (long seed = 0; seed < 50; seed++) {
+            Town town = searchedAndDugTown(seed);
+            Town loaded = load(save(town));
+            assertEquals(town.pack(), loaded.pack());
+            assertSame(town.getTerrain(), loaded.getTerrain());
+            assertEquals(town.getTreasure(), loaded.getTreasure());
+            assertEquals(town.getLatestNews(), loaded.getLatestNews());
+        }
+    }
+
+    @Test
+    public void packAndUnpackRoundTrip() {
+        for (long seed = 0; seed < 50; seed++) {
+            Town town = searchedAndDugTown(seed);
+            Town unpacked = Town.unpack(town.pack(), null, null, false, null, NullOutputSink.INSTANCE);
+            assertEquals(town.pack(), unpacked.pack());
+            assertEquals(town.isToughTown(), unpacked.isToughTown());
+            assertEquals(town.isSearched(), unpacked.isSearched());
+            assertEquals(town.isDug(), unpacked.isDug());
+        }
+    }
+
+    @Test
+    public void loadRejectsATerrainThatIsNotInTerrains() throws IOException {
+        byte[] saved = save(searchedAndDugTown(1));
+        // the terrain's name comes first, then the ordinal of the item needed to cross it
+        int nameLength = ((saved[0] & 0xff) << 8 | (saved[1] & 0xff));
+        saved[2 + nameLength] = (byte) Item.SHOVEL.ordinal();
+        assertThrows(IOException.class, () -> load(saved));
+    }
+
+    @Test
+    public void loadRejectsAnUnknownItem() throws IOException {
+        byte[] saved = save(searchedAndDugTown(1));
+        int nameLength = ((saved[0] & 0xff) << 8 | (saved[1] & 0xff));
+        saved[2 + nameLength] = (byte) Item.values().length;
+        assertThrows(IOException.class, () -> load(saved));
+    }
+
+    @Test
+    public void everyTerrainHasAnIndex() {
+        for (int i = 0; i < Town.TERRAINS.length; i++) {
+            assertEquals(i, Town.terrainIndex(Town.TERRAINS[i].getNeededItem()));
+        }
+        assertEquals(-1, Town.terrainIndex(Item.SHOVEL));
+        assertEquals(-1, Town.terrainIndex(Item.SWORD));
+    }
+}
@@ -0,0 +1,132 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a saved game, restored into another session, carries on exactly as the game it was saved from.
+ */
+
+public class TreasureHunterTest {
+    private static final String[] BEFORE = {"bot", "n", "b", "rope", "y", "m", "h", "d", "m", "l", "b", "machete", "y", "m"};
+    private static final String[] AFTER = {"h", "m", "d", "s", "rope", "y", "m", "h", "m", "h", "b", "boat", "y", "m", "h", "x"};
+
+    private static void assertSameHunter(Hunter expected, Hunter actual) {
+        assertEquals(expected.getHunterName(), actual.getHunterName());
+        assertEquals(expected.getGold(), actual.getGold());
+        assertEquals(expected.getKit(), actual.getKit());
+        assertEquals(expected.getTreasures(), actual.getTreasures());
+    }
+
+    /**
+     * Plays BEFORE, saves the game the moment it asks for the next line, then plays on with AFTER.
+     */
+    private static TreasureHunter playAndSave(long seed, boolean worldKept, ByteArrayOutputStream save) {
+        return playAndSave(seed, worldKept, Balance.BUILT_IN, save);
+    }
+
+    private static TreasureHunter playAndSave(long seed, boolean worldKept, Balance balance, ByteArrayOutputStream save) {
+        List<String> lines = new ArrayList<>(List.of(BEFORE));
+        lines.addAll(List.of(AFTER));
+        Iterator<String> script = lines.iterator();
+        TreasureHunter[] game = new TreasureHunter[1];
+        int[] read = {0};
+        InputSource input = () -> {
+            if (read[0]++ == BEFORE.length) {
+                try {
+                    game[0].save(new DataOutputStream(save));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return script.hasNext() ? script.next() : null;
+        };
+        GameContext context = new GameContext(seed, input, NullOutputSink.INSTANCE);
+        context.setWorldKept(worldKept);
+        context.setBalance(balance);
+        game[0] = new TreasureHunter(context);
+        game[0].play();
+        return game[0];
+    }
+
+    private static TreasureHunter restore(ByteArrayOutputStream save, GameContext context) throws IOException {
+        return TreasureHunter.restore(new DataInputStream(new ByteArrayInputStream(save.toByteArray())), context);
+    }
+
+    @Test
+    public void restoredGameCarriesOnLikeTheLiveOne() throws IOException {
+        int compared = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            boolean worldKept = seed % 2 == 0;
+            ByteArrayOutputStream save = new ByteArrayOutputStream();
+            TreasureHunter live = playAndSave(seed, worldKept, save);
+            if (save.size() == 0) {
+                continue; // the game ended before the save point
+            }
+            GameContext context = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+            TreasureHunter restored = restore(save, context);
+            restored.resume();
+            assertSameHunter(live.getHunter(), restored.getHunter());
+            assertEquals(live.getContext().isRunning(), context.isRunning());
+            compared++;
+        }
+        assertTrue(compared > 20, compared + " games reached the save point");
+    }
+
+    @Test
+    public void restoredGameKeepsItsSession() throws IOException {
+        ByteArrayOutputStream save = new ByteArrayOutputStream();
+        playAndSave(9, true, save);
+
+        GameContext context = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+        EventLog log = (event, subject, value) -> { };
+        Market market = new Market();
+        context.setEventLog(log);
+        context.setMarket(market);
+        TreasureHunter restored = restore(save, context);
+        assertSame(context, restored.getContext());
+        assertSame(log, context.getEventLog());
+        assertSame(market, context.getMarket());
+        assertEquals(GameMode.NORMAL, context.getMode());
+        assertNotNull(restored.getWorld());
+    }
+
+    @Test
+    public void restoredGameKeepsItsEconomy() throws IOException {
+        Path file = Files.createTempFile("balance", ".properties");
+        Files.writeString(file, "normal.startingGold=60\nnormal.priceScale=2\n");
+        Balance tuned = Balance.load(file);
+        Files.delete(file);
+        int compared = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            ByteArrayOutputStream save = new ByteArrayOutputStream();
+            TreasureHunter live = playAndSave(seed, seed % 2 == 0, tuned, save);
+            if (save.size() == 0) {
+                continue;
+            }
+            // restored into a session with the built-in balance, the game still plays with the one it was saved with
+            GameContext context = new GameContext(0, new ScriptInput(AFTER), NullOutputSink.INSTANCE);
+            TreasureHunter restored = restore(save, context);
+            restored.resume();
+            assertSameHunter(live.getHunter(), restored.getHunter());
+            compared++;
+        }
+        assertTrue(compared > 10, compared + " games reached the save point");
+    }
+}
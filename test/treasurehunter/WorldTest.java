@@ -0,0 +1,159 @@
+package treasurehunter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the routes World.findTreasure() finds, and that they follow the towns as hunters change them.
+ */
+
+public class WorldTest {
+    private static final GameMode MODE = GameMode.NORMAL;
+
+    private static World newWorld(long seed, int cachedTowns) {
+        return new World(seed, MODE.getToughness(), MODE.getPrices(), cachedTowns);
+    }
+
+    private static Hunter newHunter() {
+        return new Hunter("bot", 0, 7, NullOutputSink.INSTANCE);
+    }
+
+    private static void search(World world, long id, Hunter hunter) {
+        Town town = world.enter(id, null, hunter, false, new SplittableRandom(0), NullOutputSink.INSTANCE);
+        town.replay(GameEvent.TOWN_SEARCHED);
+        world.update(id, town);
+    }
+
+    private static void assertSameRoute(World.Route expected, World.Route actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.getCost(), actual.getCost());
+        assertEquals(expected.getRoads(), actual.getRoads());
+        assertEquals(expected.getItemsToBuy(), actual.getItemsToBuy());
+        assertEquals(expected.getTreasure(), actual.getTreasure());
+    }
+
+    @Test
+    public void routeEndsAtATreasureTheHunterHasNot() {
+        for (long seed = 0; seed < 20; seed++) {
+            World world = newWorld(seed, World.DEFAULT_CACHED_TOWNS);
+            Hunter hunter = newHunter();
+            hunter.addTreasure(Treasure.CROWN);
+            World.Route route = world.findTreasure(World.HOME, hunter);
+            assertNotNull(route);
+
+            long[] towns = route.getTowns();
+            long end = towns[towns.length - 1];
+            assertEquals(World.HOME, towns[0]);
+            assertEquals(towns.length - 1, route.getRoads());
+            assertEquals(route.getTreasure(), world.getTreasure(end));
+            assertTrue(route.getTreasure().isCollectible());
+            assertNotEquals(Treasure.CROWN, route.getTreasure());
+            assertFalse(world.isSearched(end));
+        }
+    }
+
+    @Test
+    public void routeCostsWhatItsItemsDo() {
+        PriceCatalog prices = MODE.getPrices();
+        for (long seed = 0; seed < 20; seed++) {
+            World.Route route = newWorld(seed, World.DEFAULT_CACHED_TOWNS).findTreasure(World.HOME, newHunter());
+            int cost = 0;
+            for (Item item : Item.values()) {
+                if ((route.getItemsToBuy() & item.getBit()) != 0) {
+                    cost += prices.getBuyPrice(item);
+                }
+            }
+            assertEquals(cost, route.getCost());
+            assertTrue(route.isAffordable(cost));
+            assertEquals(cost == 0, route.isAffordable(0));
+        }
+    }
+
+    @Test
+    public void routeIsFoundAgainOnceItsTownIsSearched() {
+        World world = newWorld(3, World.DEFAULT_CACHED_TOWNS);
+        Hunter hunter = newHunter();
+        World.Route route = world.findTreasure(World.HOME, hunter);
+        long[] towns = route.getTowns();
+        long end = towns[towns.length - 1];
+
+        search(world, end, hunter);
+        assertTrue(world.isSearched(end));
+        World.Route next = world.findTreasure(World.HOME, hunter);
+        assertNotNull(next);
+        long[] nextTowns = next.getTowns();
+        assertNotEquals(end, nextTowns[nextTowns.length - 1]);
+    }
+
+    @Test
+    public void saveAndLoadFindTheSameRoutes() throws IOException {
+        World world = newWorld(11, World.DEFAULT_CACHED_TOWNS);
+        Hunter hunter = newHunter();
+        for (int i = 0; i < 10; i++) {
+            World.Route route = world.findTreasure(World.HOME, hunter);
+            search(world, route.getTowns()[route.getTowns().length - 1], hunter);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        world.save(new DataOutputStream(bytes));
+        World loaded = World.load(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                MODE.getToughness(), MODE.getPrices(), World.DEFAULT_CACHED_TOWNS);
+
+        assertEquals(world.getTownsChanged(), loaded.getTownsChanged());
+        for (long id : world.getNeighbours(World.HOME)) {
+            assertSameRoute(world.findTreasure(id, hunter), loaded.findTreasure(id, hunter));
+        }
+        assertSameRoute(world.findTreasure(World.HOME, hunter), loaded.findTreasure(World.HOME, hunter));
+    }
+
+    @Test
+    public void evictedTownsRollTheSameAgain() {
+        World small = newWorld(5, 4);
+        World large = newWorld(5, World.DEFAULT_CACHED_TOWNS);
+        Hunter hunter = newHunter();
+        assertSameRoute(large.findTreasure(World.HOME, hunter), small.findTreasure(World.HOME, hunter));
+        for (long id = 0; id < 200; id++) {
+            assertEquals(large.getTerrain(id), small.getTerrain(id));
+            assertEquals(large.getTreasure(id), small.getTreasure(id));
+        }
+        assertTrue(small.getTownsCached() <= 4);
+    }
+
+    @Test
+    public void everySearchedTownStaysSearched() throws IOException {
+        World world = newWorld(13, World.DEFAULT_CACHED_TOWNS);
+        Hunter hunter = newHunter();
+        int towns = 100_000;
+        for (long id = 0; id < towns; id++) {
+            search(world, id, hunter);
+        }
+        assertEquals(towns, world.getTownsChanged());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        world.save(new DataOutputStream(bytes));
+        World loaded = World.load(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                MODE.getToughness(), MODE.getPrices(), World.DEFAULT_CACHED_TOWNS);
+
+        assertEquals(towns, loaded.getTownsChanged());
+        for (long id = 0; id < towns; id++) {
+            assertTrue(world.isSearched(id), "town " + id);
+            assertTrue(loaded.isSearched(id), "town " + id);
+        }
+        assertFalse(loaded.isSearched(towns));
+    }
+}